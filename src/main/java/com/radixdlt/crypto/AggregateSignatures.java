@@ -0,0 +1,277 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.SerializerConstants;
+import com.radixdlt.serialization.SerializerDummy;
+import com.radixdlt.serialization.SerializerId2;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A single aggregate {@link MuSig} signature from a subset of a known, ordered validator set.
+ * <p>
+ * Signers are identified by a bitmap of their indices into the validator set, so that the
+ * serialized form is the bitmap plus one 64 byte signature, regardless of the number of signers.
+ * The validator set itself is not serialized, and must be supplied using
+ * {@link #withValidators(List)} after deserialization, before signatures can be verified.
+ * Until then, no signers are reported as having signed any message.
+ * <p>
+ * Verification requires a single Schnorr verification plus aggregation of the signers' keys.
+ * The aggregate key is computed once per bound instance, and reused for later verifications.
+ * As aggregate signatures can only be produced jointly by all signers, an individual signature
+ * cannot be added to an aggregate signature, and
+ * {@link #concatenate(ECPublicKey, Signature) concatenating} a new signer is not supported.
+ */
+@Immutable
+@SerializerId2("crypto.aggregate_signatures")
+public final class AggregateSignatures implements Signatures {
+	// Placeholder for the serializer ID
+	@JsonProperty(SerializerConstants.SERIALIZER_NAME)
+	@DsonOutput(DsonOutput.Output.ALL)
+	private final SerializerDummy serializer = SerializerDummy.DUMMY;
+
+	@JsonProperty("version")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private final short version = 100;
+
+	// Minimal little-endian bitmap of signer indices, without trailing zero bytes
+	private final byte[] signers;
+
+	private final SchnorrSignature signature;
+
+	// Not serialized, supplied by the receiver
+	private final ImmutableList<ECPublicKey> validators;
+
+	// Aggregate of the signers' keys, or null if there are none
+	private final Supplier<ECPoint> aggregateKey = Suppliers.memoize(this::computeAggregateKey);
+
+	AggregateSignatures() {
+		this(new byte[0], null, null);
+	}
+
+	private AggregateSignatures(byte[] signers, SchnorrSignature signature, ImmutableList<ECPublicKey> validators) {
+		this.signers = signers;
+		this.signature = signature;
+		this.validators = validators;
+	}
+
+	/**
+	 * Creates an aggregate signature from the specified signers of a validator set.
+	 *
+	 * @param validators The ordered validator set
+	 * @param signers The validators whose partial signatures were aggregated into {@code signature}
+	 * @param signature The signature produced by {@link MuSig#aggregatePartialSignatures(byte[], List, byte[], List)}
+	 *     using {@link #signerKeys(List, Set)} as the signer list
+	 * @return An aggregate signature
+	 * @throws IllegalArgumentException if any signer is not a member of {@code validators}
+	 */
+	public static AggregateSignatures create(List<ECPublicKey> validators, Set<ECPublicKey> signers, SchnorrSignature signature) {
+		final BitSet bitmap = new BitSet(validators.size());
+		for (ECPublicKey signer : signers) {
+			final int index = validators.indexOf(signer);
+			if (index < 0) {
+				throw new IllegalArgumentException("Signer is not a validator: " + signer);
+			}
+			bitmap.set(index);
+		}
+		return new AggregateSignatures(bitmap.toByteArray(), Objects.requireNonNull(signature), ImmutableList.copyOf(validators));
+	}
+
+	/**
+	 * Returns the specified signers in validator set order, which is the order required
+	 * by {@link MuSig} for signing.
+	 *
+	 * @param validators The ordered validator set
+	 * @param signers The validators taking part in signing
+	 * @return The signers, in validator set order
+	 */
+	public static ImmutableList<ECPublicKey> signerKeys(List<ECPublicKey> validators, Set<ECPublicKey> signers) {
+		return validators.stream()
+			.filter(signers::contains)
+			.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * Returns a copy of this aggregate signature, bound to the specified validator set.
+	 *
+	 * @param validators The ordered validator set the signature was created against
+	 * @return A copy of this aggregate signature that can be verified
+	 */
+	public AggregateSignatures withValidators(List<ECPublicKey> validators) {
+		return new AggregateSignatures(this.signers, this.signature, ImmutableList.copyOf(validators));
+	}
+
+	/**
+	 * Returns the aggregate signature.
+	 */
+	public SchnorrSignature getSignature() {
+		return this.signature;
+	}
+
+	@Override
+	public SignatureScheme signatureScheme() {
+		return SignatureScheme.SCHNORR;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return count() == 0;
+	}
+
+	@Override
+	public int count() {
+		return BitSet.valueOf(this.signers).cardinality();
+	}
+
+	/**
+	 * Returns this instance if {@code publicKey} is already a signer.
+	 * An individual signature cannot be combined into an aggregate signature, so adding
+	 * a new signer is not supported.
+	 *
+	 * @throws IllegalArgumentException if {@code signature} is not a {@link SchnorrSignature},
+	 *     or {@code publicKey} is not a member of the bound validator set
+	 * @throws UnsupportedOperationException if {@code publicKey} is not already a signer
+	 */
+	@Override
+	public Signatures concatenate(ECPublicKey publicKey, Signature signature) {
+		if (!(signature instanceof SchnorrSignature)) {
+			throw new IllegalArgumentException(
+				String.format("Expected 'signature' to be of type '%s' but got '%s'",
+					SchnorrSignature.class.getName(), signature.getClass().getName()
+				)
+			);
+		}
+		final int index = this.validators == null ? -1 : this.validators.indexOf(publicKey);
+		if (index < 0) {
+			throw new IllegalArgumentException("Signer is not a validator: " + publicKey);
+		}
+		if (!BitSet.valueOf(this.signers).get(index)) {
+			throw new UnsupportedOperationException("Cannot add a signer to an aggregate signature: " + publicKey);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns all signers if the aggregate signature is valid, or an empty list otherwise,
+	 * including when no validator set has been supplied.
+	 */
+	@Override
+	public List<ECPublicKey> signedMessage(HashCode message) {
+		final ECPoint key = this.aggregateKey.get();
+		if (key == null || this.signature == null || !MuSig.verify(message.asBytes(), key, this.signature)) {
+			return ImmutableList.of();
+		}
+		return signerKeys();
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, int threshold) {
+		return count() >= threshold && signedMessage(message).size() >= threshold;
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, Set<ECPublicKey> signers, int threshold) {
+		final long count = signerKeys().stream().filter(signers::contains).count();
+		return count >= threshold && Signatures.super.isSignedByAtLeast(message, signers, threshold);
+	}
+
+	private ImmutableList<ECPublicKey> signerKeys() {
+		final BitSet bitmap = BitSet.valueOf(this.signers);
+		if (this.validators == null || bitmap.length() > this.validators.size()) {
+			// No validator set, or signer bitmap does not match validator set
+			return ImmutableList.of();
+		}
+		return bitmap.stream()
+			.mapToObj(this.validators::get)
+			.collect(ImmutableList.toImmutableList());
+	}
+
+	private ECPoint computeAggregateKey() {
+		final ImmutableList<ECPublicKey> signerKeys = signerKeys();
+		if (signerKeys.isEmpty()) {
+			return null;
+		}
+		try {
+			return MuSig.aggregatePoint(signerKeys);
+		} catch (IllegalArgumentException e) {
+			// Aggregate key is the point at infinity, which no signature verifies against
+			return null;
+		}
+	}
+
+	@JsonProperty("signers")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private byte[] getSerializerSigners() {
+		return this.signers;
+	}
+
+	@JsonProperty("signature")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private byte[] getSerializerSignature() {
+		return this.signature == null ? null : this.signature.getBytes();
+	}
+
+	@JsonCreator
+	private static AggregateSignatures fromSerializer(
+		@JsonProperty("signers") byte[] signers,
+		@JsonProperty("signature") byte[] signature
+	) {
+		final byte[] bitmap = signers == null ? new byte[0] : signers;
+		if (bitmap.length > 0 && bitmap[bitmap.length - 1] == 0) {
+			// Only the minimal encoding is accepted, so that equal bitmaps are always encoded equally
+			throw new IllegalArgumentException("Signer bitmap has trailing zero bytes");
+		}
+		return new AggregateSignatures(bitmap, signature == null ? null : SchnorrSignature.from(signature), null);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s:%s]", getClass().getSimpleName(), BitSet.valueOf(this.signers), this.signature);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof AggregateSignatures)) {
+			return false;
+		}
+		// The validator set is not part of the signature, so is not compared
+		AggregateSignatures that = (AggregateSignatures) o;
+		return Arrays.equals(this.signers, that.signers)
+			&& Objects.equals(this.signature, that.signature);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(Arrays.hashCode(this.signers), this.signature);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.base.Throwables;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits batches of signature verifications across an {@link Executor}.
+ */
+final class BatchVerifier {
+	// Minimum number of verifications per task before it is worth handing work to another thread
+	private static final int MIN_VERIFICATIONS_PER_TASK = 8;
+
+	private BatchVerifier() {
+		throw new IllegalStateException("Can't construct");
+	}
+
+	static boolean[] verify(
+		KeyHandler keyHandler,
+		List<byte[]> hashes,
+		List<ECDSASignature> signatures,
+		List<ECPublicKey> publicKeys,
+		Executor executor
+	) {
+		final int size = hashes.size();
+		checkSizes(size, signatures, publicKeys);
+
+		// Each task writes to a disjoint range of results, and joining provides the required happens-before
+		final boolean[] results = new boolean[size];
+		forEachChunk(size, executor, (from, to) -> {
+			for (int i = from; i < to; ++i) {
+				results[i] = verify(keyHandler, hashes.get(i), signatures.get(i), publicKeys.get(i));
+			}
+		});
+		return results;
+	}
+
+	/**
+	 * Checks whether at least {@code threshold} of the specified signatures are valid for {@code hash}.
+	 * Verification stops as soon as the outcome is known, either because enough valid
+	 * signatures have been seen, or because too many invalid ones have.
+	 */
+	static boolean verifyThreshold(
+		KeyHandler keyHandler,
+		byte[] hash,
+		List<ECDSASignature> signatures,
+		List<ECPublicKey> publicKeys,
+		int threshold,
+		Executor executor
+	) {
+		final int size = signatures.size();
+		checkSizes(size, signatures, publicKeys);
+		if (threshold <= 0) {
+			return true;
+		}
+		if (threshold > size) {
+			return false;
+		}
+
+		final int maxInvalid = size - threshold;
+		final AtomicInteger valid = new AtomicInteger();
+		final AtomicInteger invalid = new AtomicInteger();
+		forEachChunk(size, executor, (from, to) -> {
+			for (int i = from; i < to; ++i) {
+				if (valid.get() >= threshold || invalid.get() > maxInvalid) {
+					return;
+				}
+				if (verify(keyHandler, hash, signatures.get(i), publicKeys.get(i))) {
+					valid.incrementAndGet();
+				} else {
+					invalid.incrementAndGet();
+				}
+			}
+		});
+		return valid.get() >= threshold;
+	}
+
+	private static boolean verify(KeyHandler keyHandler, byte[] hash, ECDSASignature signature, ECPublicKey publicKey) {
+		return signature != null && keyHandler.verify(hash, signature, publicKey);
+	}
+
+	private static void checkSizes(int size, List<ECDSASignature> signatures, List<ECPublicKey> publicKeys) {
+		if (signatures.size() != size || publicKeys.size() != size) {
+			throw new IllegalArgumentException(String.format(
+				"Batch sizes do not match: %s hashes, %s signatures, %s public keys", size, signatures.size(), publicKeys.size()
+			));
+		}
+	}
+
+	private interface RangeTask {
+		void run(int from, int to);
+	}
+
+	private static void forEachChunk(int size, Executor executor, RangeTask task) {
+		final int chunks = Math.min(Runtime.getRuntime().availableProcessors(), size / MIN_VERIFICATIONS_PER_TASK);
+		if (chunks <= 1) {
+			task.run(0, size);
+			return;
+		}
+
+		final CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks - 1];
+		for (int chunk = 0; chunk < chunks - 1; ++chunk) {
+			final int from = chunkStart(size, chunks, chunk);
+			final int to = chunkStart(size, chunks, chunk + 1);
+			futures[chunk] = CompletableFuture.runAsync(() -> task.run(from, to), executor);
+		}
+		// Calling thread takes the last chunk rather than sitting idle
+		task.run(chunkStart(size, chunks, chunks - 1), size);
+		try {
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw e;
+		}
+	}
+
+	private static int chunkStart(int size, int chunks, int chunk) {
+		return (int) ((long) size * chunk / chunks);
+	}
+}
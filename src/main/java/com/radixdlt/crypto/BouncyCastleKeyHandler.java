@@ -28,15 +28,15 @@ import org.bouncycastle.crypto.signers.DSAKCalculator;
 import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.crypto.signers.RandomDSAKCalculator;
-import org.bouncycastle.jce.interfaces.ECPublicKey;
 import org.bouncycastle.jce.spec.ECParameterSpec;
-import org.bouncycastle.jce.spec.ECPublicKeySpec;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 
 import com.radixdlt.SecurityCritical;
 import com.radixdlt.SecurityCritical.SecurityKind;
 
 import java.math.BigInteger;
-import java.security.KeyFactory;
 
 @SecurityCritical({ SecurityKind.KEY_GENERATION, SecurityKind.SIG_SIGN, SecurityKind.SIG_VERIFY })
 final class BouncyCastleKeyHandler implements KeyHandler {
@@ -44,6 +44,10 @@ final class BouncyCastleKeyHandler implements KeyHandler {
 	private final BigInteger halfCurveOrder;
 	private final ECDomainParameters domain;
 	private final ECParameterSpec spec;
+	// Verifiers hold no per-call state other than the key, so they can be re-used within a thread
+	private final ThreadLocal<ECDSASigner> verifier = ThreadLocal.withInitial(ECDSASigner::new);
+	// Fixed-base comb; its precomputed table is cached on the generator point and shared
+	private final ECMultiplier baseMultiplier = new FixedPointCombMultiplier();
 
 	BouncyCastleKeyHandler(X9ECParameters curve) {
 		this.curveOrder = curve.getN();
@@ -73,10 +77,42 @@ final class BouncyCastleKeyHandler implements KeyHandler {
 		return new ECDSASignature(r, s);
 	}
 
+	@Override
+	public ECDSASignature signRecoverable(byte[] hash, byte[] privateKey, boolean enforceLowS, boolean useDeterministicSignatures) {
+		final ECDSASignature signature = sign(hash, privateKey, enforceLowS, useDeterministicSignatures);
+		// ECDSASigner does not expose the point R, so find the recovery id that yields our public key
+		final ECPoint publicPoint = spec.getG().multiply(new BigInteger(1, privateKey)).normalize();
+		for (int recoveryId = 0; recoveryId < 4; recoveryId++) {
+			final ECDSASignature candidate = new ECDSASignature(signature.getR(), signature.getS(), recoveryId);
+			try {
+				if (ECKeyUtils.recoverPublicKey(hash, candidate).equals(publicPoint)) {
+					return candidate;
+				}
+			} catch (PublicKeyException e) {
+				// Not a valid candidate, try the next one
+			}
+		}
+		throw new IllegalStateException("Unable to determine recovery id for signature");
+	}
+
+	@Override
+	public ECPoint recoverPublicKey(byte[] hash, ECDSASignature signature) throws PublicKeyException {
+		return ECKeyUtils.recoverPublicKey(hash, signature);
+	}
+
 	@Override
 	public boolean verify(byte[] hash, ECDSASignature signature, byte[] publicKey) {
-		ECDSASigner verifier = new ECDSASigner();
-		verifier.init(false, new ECPublicKeyParameters(spec.getCurve().decodePoint(publicKey), domain));
+		return verify(hash, signature, new ECPublicKeyParameters(spec.getCurve().decodePoint(publicKey), domain));
+	}
+
+	@Override
+	public boolean verify(byte[] hash, ECDSASignature signature, ECPublicKey publicKey) {
+		return verify(hash, signature, publicKey.getPublicKeyParameters());
+	}
+
+	private boolean verify(byte[] hash, ECDSASignature signature, ECPublicKeyParameters publicKeyParameters) {
+		ECDSASigner verifier = this.verifier.get();
+		verifier.init(false, publicKeyParameters);
 		return verifier.verifySignature(hash, signature.getR(), signature.getS());
 	}
 
@@ -84,15 +120,9 @@ final class BouncyCastleKeyHandler implements KeyHandler {
 	public byte[] computePublicKey(byte[] privateKey) throws PrivateKeyException, PublicKeyException {
 		ECKeyUtils.validatePrivate(privateKey);
 
-		BigInteger d = new BigInteger(1, privateKey);
 		try {
-			ECPublicKeySpec publicKeySpec = new ECPublicKeySpec(spec.getG().multiply(d), spec);
-
-			// Note that the provider here *must* be "BC" for this to work
-			// correctly because we are using the bouncy castle ECPublicKeySpec,
-			// and are casting to a bouncy castle ECPublicKey.
-			return ((ECPublicKey) KeyFactory.getInstance("EC", "BC").generatePublic(publicKeySpec)).getQ().getEncoded(true);
-		} catch (Exception e) {
+			return this.baseMultiplier.multiply(this.spec.getG(), new BigInteger(1, privateKey)).getEncoded(true);
+		} catch (RuntimeException e) {
 			throw new PublicKeyException(e);
 		}
 	}
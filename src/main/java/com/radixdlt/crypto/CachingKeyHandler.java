@@ -0,0 +1,118 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.exception.PrivateKeyException;
+import com.radixdlt.crypto.exception.PublicKeyException;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A {@link KeyHandler} that remembers successful signature verifications, so
+ * that the same (public key, hash, signature) triple seen again, for example
+ * via gossip and then again during sync, is not re-verified.
+ * <p>
+ * Only successful verifications are cached, so that invalid signatures cannot
+ * be used to evict valid entries any faster than valid ones can.  Entries are
+ * keyed by a digest of the triple, and the cache size is bounded with
+ * least-recently-used eviction.
+ */
+final class CachingKeyHandler implements KeyHandler {
+	private final KeyHandler delegate;
+	private final Cache<HashCode, Boolean> verified;
+
+	CachingKeyHandler(KeyHandler delegate, long maximumSize) {
+		this.delegate = Objects.requireNonNull(delegate);
+		this.verified = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build();
+	}
+
+	@Override
+	public ECDSASignature sign(byte[] hash, byte[] privateKey, boolean enforceLowS, boolean useDeterministicSignatures) {
+		return delegate.sign(hash, privateKey, enforceLowS, useDeterministicSignatures);
+	}
+
+	@Override
+	public ECDSASignature signRecoverable(byte[] hash, byte[] privateKey, boolean enforceLowS, boolean useDeterministicSignatures) {
+		return delegate.signRecoverable(hash, privateKey, enforceLowS, useDeterministicSignatures);
+	}
+
+	@Override
+	public ECPoint recoverPublicKey(byte[] hash, ECDSASignature signature) throws PublicKeyException {
+		return delegate.recoverPublicKey(hash, signature);
+	}
+
+	@Override
+	public boolean verify(byte[] hash, ECDSASignature signature, byte[] publicKey) {
+		final HashCode key = cacheKey(hash, signature, publicKey);
+		if (verified.getIfPresent(key) != null) {
+			return true;
+		}
+		return remember(key, delegate.verify(hash, signature, publicKey));
+	}
+
+	@Override
+	public boolean verify(byte[] hash, ECDSASignature signature, ECPublicKey publicKey) {
+		final HashCode key = cacheKey(hash, signature, publicKey.bytes());
+		if (verified.getIfPresent(key) != null) {
+			return true;
+		}
+		return remember(key, delegate.verify(hash, signature, publicKey));
+	}
+
+	@Override
+	public byte[] computePublicKey(byte[] privateKey) throws PrivateKeyException, PublicKeyException {
+		return delegate.computePublicKey(privateKey);
+	}
+
+	/**
+	 * Returns hit, miss and eviction statistics for the verification cache.
+	 *
+	 * @return A snapshot of the cache statistics
+	 */
+	CacheStats stats() {
+		return verified.stats();
+	}
+
+	private boolean remember(HashCode key, boolean valid) {
+		if (valid) {
+			verified.put(key, Boolean.TRUE);
+		}
+		return valid;
+	}
+
+	private static HashCode cacheKey(byte[] hash, ECDSASignature signature, byte[] publicKey) {
+		final byte[] r = signature.getR().toByteArray();
+		final byte[] s = signature.getS().toByteArray();
+		// Each variable length component is length prefixed so that distinct triples cannot collide
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 4 + publicKey.length + hash.length + r.length + s.length);
+		buffer.putInt(publicKey.length).put(publicKey);
+		buffer.putInt(hash.length).put(hash);
+		buffer.putInt(r.length).put(r);
+		buffer.putInt(s.length).put(s);
+		return HashUtils.sha256(buffer.array());
+	}
+}
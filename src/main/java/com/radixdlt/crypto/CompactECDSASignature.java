@@ -0,0 +1,193 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.utils.Bytes;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A fixed size, 64 byte representation of an {@link ECDSASignature}, consisting of
+ * the big-endian, zero padded {@code r} and {@code s} components concatenated.
+ * <p>
+ * Unlike {@link ECDSASignature}, encoding and hashing this representation does not
+ * require conversion of {@link BigInteger} components.  Note that the recovery id of
+ * an {@link ECDSASignature}, if any, is not retained.
+ */
+public final class CompactECDSASignature {
+	public static final int COMPONENT_BYTES = 32;
+	public static final int BYTES = COMPONENT_BYTES * 2;
+
+	private final byte[] value;
+
+	private CompactECDSASignature(byte[] bytes) {
+		assert (bytes != null && bytes.length == BYTES);
+		this.value = bytes;
+	}
+
+	/**
+	 * Create a compact signature from an {@link ECDSASignature}.
+	 *
+	 * @param signature The signature to convert
+	 * @return A compact signature with the same {@code r} and {@code s} components
+	 * @throws IllegalArgumentException if either component does not fit in {@link #COMPONENT_BYTES} bytes
+	 */
+	public static CompactECDSASignature from(ECDSASignature signature) {
+		Objects.requireNonNull(signature, "signature is required");
+		byte[] bytes = new byte[BYTES];
+		copyComponent(signature.getR(), bytes, 0);
+		copyComponent(signature.getS(), bytes, COMPONENT_BYTES);
+		return new CompactECDSASignature(bytes);
+	}
+
+	/**
+	 * Create a compact signature from its bytes
+	 * @param bytes The bytes (must be of length CompactECDSASignature.BYTES)
+	 * @return A compact signature with those bytes
+	 * @throws IllegalArgumentException if {@code bytes} is not exactly {@link #BYTES} long
+	 */
+	public static CompactECDSASignature from(byte[] bytes) {
+		Objects.requireNonNull(bytes, "bytes is required");
+		if (bytes.length != BYTES) {
+			throw new IllegalArgumentException(String.format(
+				"Bytes length must be %d but is %d",
+				BYTES, bytes.length)
+			);
+		}
+		return from(bytes, 0);
+	}
+
+	/**
+	 * Create a compact signature from a portion of a byte array
+	 * @param bytes The bytes (must be of length CompactECDSASignature.BYTES)
+	 * @param offset The offset into the bytes array
+	 * @return A compact signature with those bytes
+	 */
+	public static CompactECDSASignature from(byte[] bytes, int offset) {
+		Objects.requireNonNull(bytes, "bytes is required");
+		if (offset < 0) {
+			throw new IllegalArgumentException("Offset must be >= 0: " + offset);
+		}
+		if (offset + BYTES > bytes.length) {
+			throw new IllegalArgumentException(String.format(
+				"Bytes length must be %d but is %d",
+				offset + BYTES, bytes.length)
+			);
+		}
+		return new CompactECDSASignature(Arrays.copyOfRange(bytes, offset, offset + BYTES));
+	}
+
+	/**
+	 * Create a compact signature from its hex bytes
+	 * @param hexBytes The bytes in hex (must be of length CompactECDSASignature.BYTES * 2)
+	 * @return A compact signature with those bytes
+	 */
+	public static CompactECDSASignature from(String hexBytes) {
+		Objects.requireNonNull(hexBytes, "hexBytes is required");
+		if (hexBytes.length() != BYTES * 2) {
+			throw new IllegalArgumentException(String.format(
+				"Hex bytes string length must be %d but is %d",
+				BYTES * 2, hexBytes.length())
+			);
+		}
+		return new CompactECDSASignature(Bytes.fromHexString(hexBytes));
+	}
+
+	/**
+	 * Converts this compact signature to an {@link ECDSASignature}.
+	 *
+	 * @return An {@link ECDSASignature} with the same {@code r} and {@code s} components
+	 */
+	public ECDSASignature toECDSASignature() {
+		return new ECDSASignature(getR(), getS());
+	}
+
+	public BigInteger getR() {
+		return new BigInteger(1, this.value, 0, COMPONENT_BYTES);
+	}
+
+	public BigInteger getS() {
+		return new BigInteger(1, this.value, COMPONENT_BYTES, COMPONENT_BYTES);
+	}
+
+	/**
+	 * Gets the underlying bytes of this signature.
+	 * Note that this is NOT a copy and is the actual underlying byte array.
+	 */
+	public byte[] getBytes() {
+		return this.value;
+	}
+
+	/**
+	 * Returns a read-only view of the underlying bytes of this signature.
+	 */
+	public ByteBuffer asReadOnlyBuffer() {
+		return ByteBuffer.wrap(this.value).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Copies this signature to a byte array with some offset.
+	 * Note that the array must fit the offset + CompactECDSASignature.BYTES.
+	 * @param array The array
+	 * @param offset The offset into that array
+	 */
+	public void copyTo(byte[] array, int offset) {
+		Objects.requireNonNull(array, "array is required");
+		if (array.length - offset < BYTES) {
+			throw new IllegalArgumentException(String.format(
+				"Array must be bigger than offset + %d but was %d",
+				BYTES, array.length)
+			);
+		}
+		System.arraycopy(this.value, 0, array, offset, BYTES);
+	}
+
+	private static void copyComponent(BigInteger component, byte[] array, int offset) {
+		if (component.signum() < 0 || component.bitLength() > COMPONENT_BYTES * Byte.SIZE) {
+			throw new IllegalArgumentException("Signature component out of range: " + component.toString(16));
+		}
+		// toByteArray() may include a leading sign byte, which is dropped here
+		byte[] bytes = component.toByteArray();
+		int length = Math.min(bytes.length, COMPONENT_BYTES);
+		System.arraycopy(bytes, bytes.length - length, array, offset + COMPONENT_BYTES - length, length);
+	}
+
+	@Override
+	public String toString() {
+		return Bytes.toHexString(this.value);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof CompactECDSASignature)) {
+			return false;
+		}
+		if (hashCode() != o.hashCode()) {
+			return false;
+		}
+		return Arrays.equals(this.value, ((CompactECDSASignature) o).value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(value);
+	}
+}
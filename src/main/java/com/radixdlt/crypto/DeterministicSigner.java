@@ -0,0 +1,115 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A long-lived signing context bound to a single {@link ECKeyPair}, producing
+ * deterministic <a href="https://tools.ietf.org/html/rfc6979">RFC6979</a> signatures
+ * with low values of signature part {@code S}.
+ * <p>
+ * The private key scalar and parameters are computed once, and each thread re-uses its
+ * own signer and k-calculator, so that repeatedly signing with the same key does not
+ * allocate these on every call.  Signatures are identical to those produced by
+ * {@link ECKeyPair#sign(byte[], boolean, boolean)} with {@code enforceLowS} and
+ * {@code beDeterministic} both set.
+ * <p>
+ * Instances are thread-safe.
+ */
+@SecurityCritical({ SecurityKind.SIG_SIGN })
+public final class DeterministicSigner {
+	private final ECPublicKey publicKey;
+	private final ECPrivateKeyParameters privateKeyParameters;
+	private final BigInteger curveOrder;
+	private final BigInteger halfCurveOrder;
+	private final ThreadLocal<ECDSASigner> signer = ThreadLocal.withInitial(this::createSigner);
+
+	private DeterministicSigner(ECKeyPair keyPair) {
+		this.publicKey = keyPair.getPublicKey();
+		this.privateKeyParameters = new ECPrivateKeyParameters(new BigInteger(1, keyPair.getPrivateKey()), ECKeyUtils.domain());
+		this.curveOrder = ECKeyUtils.domain().getN();
+		this.halfCurveOrder = this.curveOrder.shiftRight(1);
+	}
+
+	/**
+	 * Creates a signing context for the specified key pair.
+	 *
+	 * @param keyPair The key pair to sign with
+	 * @return A signing context for {@code keyPair}
+	 */
+	public static DeterministicSigner create(ECKeyPair keyPair) {
+		return new DeterministicSigner(Objects.requireNonNull(keyPair));
+	}
+
+	/**
+	 * Returns the public key corresponding to the key used for signing.
+	 *
+	 * @return the public key of the signing key pair
+	 */
+	public ECPublicKey getPublicKey() {
+		return this.publicKey;
+	}
+
+	/**
+	 * Signs the specified hash.
+	 *
+	 * @param hash The hash to sign
+	 * @return An ECDSA Signature.
+	 */
+	public ECDSASignature sign(HashCode hash) {
+		return sign(hash.asBytes());
+	}
+
+	/**
+	 * Signs the specified hash.
+	 *
+	 * @param hash The hash to sign
+	 * @return An ECDSA Signature.
+	 */
+	public ECDSASignature sign(byte[] hash) {
+		// The k-calculator is re-initialised from the key and hash for every signature
+		BigInteger[] components = this.signer.get().generateSignature(hash);
+		BigInteger r = components[0];
+		BigInteger s = components[1];
+		if (s.compareTo(this.halfCurveOrder) > 0) {
+			s = this.curveOrder.subtract(s);
+		}
+		return new ECDSASignature(r, s);
+	}
+
+	private ECDSASigner createSigner() {
+		ECDSASigner ecdsaSigner = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+		ecdsaSigner.init(true, this.privateKeyParameters);
+		return ecdsaSigner;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", getClass().getSimpleName(), this.publicKey.toBase64());
+	}
+}
@@ -52,6 +52,9 @@ public final class ECDSASignature implements Signature {
 	private BigInteger r;
 	private BigInteger s;
 
+	/* Optional recovery id, allowing the public key to be recovered from the signature. */
+	private Byte v;
+
 	public ECDSASignature() {
 		this(BigInteger.ZERO, BigInteger.ZERO);
 	}
@@ -66,6 +69,27 @@ public final class ECDSASignature implements Signature {
         this.s = Objects.requireNonNull(s);
     }
 
+	/**
+	 * Constructs a signature with the given components and recovery id.
+	 * Does NOT automatically canonicalise the signature.
+	 *
+	 * @param r The {@code r} component of the signature
+	 * @param s The {@code s} component of the signature
+	 * @param recoveryId The recovery id, in the range 0 to 3 inclusive
+	 * @throws IllegalArgumentException if {@code recoveryId} is out of range
+	 */
+	public ECDSASignature(BigInteger r, BigInteger s, int recoveryId) {
+		this(r, s);
+		this.v = checkRecoveryId(recoveryId);
+	}
+
+	private static byte checkRecoveryId(int recoveryId) {
+		if (recoveryId < 0 || recoveryId > 3) {
+			throw new IllegalArgumentException("Recovery id must be between 0 and 3: " + recoveryId);
+		}
+		return (byte) recoveryId;
+	}
+
 	public BigInteger getR() {
 		return r;
 	}
@@ -74,6 +98,30 @@ public final class ECDSASignature implements Signature {
 		return s;
 	}
 
+	/**
+	 * Returns {@code true} if this signature includes a recovery id.
+	 *
+	 * @return {@code true} if this signature includes a recovery id
+	 * @see ECPublicKey#recoverFrom(byte[], ECDSASignature)
+	 */
+	public boolean hasRecoveryId() {
+		return v != null;
+	}
+
+	/**
+	 * Returns the recovery id of this signature, which identifies which of the
+	 * candidate public keys for {@code r} and {@code s} produced the signature.
+	 *
+	 * @return the recovery id, in the range 0 to 3 inclusive
+	 * @throws IllegalStateException if this signature does not include a recovery id
+	 */
+	public int getRecoveryId() {
+		if (v == null) {
+			throw new IllegalStateException("Signature has no recovery id");
+		}
+		return v;
+	}
+
 	@JsonProperty("r")
 	@DsonOutput(Output.ALL)
 	private byte[] getJsonR() {
@@ -86,6 +134,12 @@ public final class ECDSASignature implements Signature {
 		return Bytes.trimLeadingZeros(s.toByteArray());
 	}
 
+	@JsonProperty("v")
+	@DsonOutput(Output.ALL)
+	private Byte getJsonV() {
+		return v;
+	}
+
 	@JsonProperty("r")
 	private void setJsonR(byte[] r) {
 		// Set sign to positive to stop BigInteger interpreting high bit as sign
@@ -98,6 +152,11 @@ public final class ECDSASignature implements Signature {
 		this.s = new BigInteger(1, s);
 	}
 
+	@JsonProperty("v")
+	private void setJsonV(Byte v) {
+		this.v = v == null ? null : checkRecoveryId(v);
+	}
+
 	@Override
 	public String toString() {
 		return toHexString();
@@ -116,7 +175,8 @@ public final class ECDSASignature implements Signature {
 		if (o instanceof ECDSASignature) {
 			ECDSASignature signature = (ECDSASignature) o;
 			return Objects.equals(r, signature.r)
-				&& Objects.equals(s, signature.s);
+				&& Objects.equals(s, signature.s)
+				&& Objects.equals(v, signature.v);
 		}
 
 		return false;
@@ -124,7 +184,7 @@ public final class ECDSASignature implements Signature {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(r, s);
+		return Objects.hash(r, s, v);
 	}
 
 	@Override
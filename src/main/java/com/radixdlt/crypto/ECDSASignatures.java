@@ -17,9 +17,12 @@
 
 package com.radixdlt.crypto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.HashCode;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.radixdlt.crypto.exception.PublicKeyException;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.SerializerConstants;
@@ -27,20 +30,32 @@ import com.radixdlt.serialization.SerializerDummy;
 import com.radixdlt.serialization.SerializerId2;
 import com.radixdlt.utils.Bytes;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.annotation.concurrent.Immutable;
 
 /**
  * A collection of <a href="https://en.wikipedia.org/wiki/
  * Elliptic_Curve_Digital_Signature_Algorithm">ECDSA</a> signatures.
+ * <p>
+ * To collect many signatures incrementally, for example votes, use an
+ * {@link ECDSASignaturesAccumulator} rather than repeated calls to
+ * {@link #concatenate(ECPublicKey, Signature)}.
  */
 @Immutable
 @SerializerId2("crypto.ecdsa_signatures")
 public final class ECDSASignatures implements Signatures {
+	// Version from which keys are serialized as raw bytes in sorted order
+	private static final short VERSION_SORTED_KEYS = 101;
+
 	// Placeholder for the serializer ID
 	@JsonProperty(SerializerConstants.SERIALIZER_NAME)
 	@DsonOutput(DsonOutput.Output.ALL)
@@ -48,7 +63,7 @@ public final class ECDSASignatures implements Signatures {
 
 	@JsonProperty("version")
 	@DsonOutput(DsonOutput.Output.ALL)
-	private short version = 100;
+	private short version = VERSION_SORTED_KEYS;
 
 	private ImmutableMap<ECPublicKey, ECDSASignature> keyToSignature;
 
@@ -106,6 +121,92 @@ public final class ECDSASignatures implements Signatures {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Checks which of the signatories in this collection have signed the message, as for
+	 * {@link #signedMessage(HashCode)}, but with the verification work spread over the
+	 * specified {@code executor}.
+	 *
+	 * @param message The hashed data to check against (the data that has been signed).
+	 * @param executor The executor to run verification tasks on.
+	 * @return The possibly empty list of valid signatories for the provided hash.
+	 */
+	public List<ECPublicKey> signedMessage(HashCode message, Executor executor) {
+		final List<ECPublicKey> publicKeys = this.keyToSignature.keySet().asList();
+		final List<ECDSASignature> signatures = this.keyToSignature.values().asList();
+		final boolean[] valid = ECKeyUtils.keyHandler.verify(
+			Collections.nCopies(publicKeys.size(), message.asBytes()), signatures, publicKeys, executor
+		);
+		return IntStream.range(0, valid.length)
+			.filter(i -> valid[i])
+			.mapToObj(publicKeys::get)
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, int threshold) {
+		return isSignedByAtLeast(message, threshold, MoreExecutors.directExecutor());
+	}
+
+	/**
+	 * Checks whether at least {@code threshold} of the signatories in this collection have signed
+	 * the message, as for {@link #isSignedByAtLeast(HashCode, int)}, but with the verification work
+	 * spread over the specified {@code executor}.  Verification stops as soon as the answer is known.
+	 *
+	 * @param message The hashed data to check against (the data that has been signed).
+	 * @param threshold The minimum number of valid signatures required.
+	 * @param executor The executor to run verification tasks on.
+	 * @return {@code true} if at least {@code threshold} signatures are valid for the provided hash.
+	 */
+	public boolean isSignedByAtLeast(HashCode message, int threshold, Executor executor) {
+		return BatchVerifier.verifyThreshold(
+			ECKeyUtils.keyHandler,
+			message.asBytes(),
+			this.keyToSignature.values().asList(),
+			this.keyToSignature.keySet().asList(),
+			threshold,
+			executor
+		);
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, Set<ECPublicKey> signers, int threshold) {
+		return isSignedByAtLeast(message, signers, threshold, MoreExecutors.directExecutor());
+	}
+
+	/**
+	 * Checks whether at least {@code threshold} of the specified {@code signers} have signed the
+	 * message, as for {@link #isSignedByAtLeast(HashCode, Set, int)}, but with the verification work
+	 * spread over the specified {@code executor}.  Verification stops as soon as the answer is known.
+	 *
+	 * @param message The hashed data to check against (the data that has been signed).
+	 * @param signers The keys whose signatures should be counted.
+	 * @param threshold The minimum number of valid signatures required.
+	 * @param executor The executor to run verification tasks on.
+	 * @return {@code true} if at least {@code threshold} of {@code signers} have a valid signature for the provided hash.
+	 */
+	public boolean isSignedByAtLeast(HashCode message, Set<ECPublicKey> signers, int threshold, Executor executor) {
+		final List<ECPublicKey> publicKeys = this.keyToSignature.keySet().stream()
+			.filter(signers::contains)
+			.collect(Collectors.toList());
+		final List<ECDSASignature> signatures = publicKeys.stream()
+			.map(this.keyToSignature::get)
+			.collect(Collectors.toList());
+		return BatchVerifier.verifyThreshold(ECKeyUtils.keyHandler, message.asBytes(), signatures, publicKeys, threshold, executor);
+	}
+
+	/**
+	 * Checks whether every signature in this collection is valid for the message, as for
+	 * {@link #isSignedByAll(HashCode)}, but with the verification work spread over the
+	 * specified {@code executor}.  Verification stops at the first invalid signature.
+	 *
+	 * @param message The hashed data to check against (the data that has been signed).
+	 * @param executor The executor to run verification tasks on.
+	 * @return {@code true} if all signatures are valid for the provided hash.
+	 */
+	public boolean isSignedByAll(HashCode message, Executor executor) {
+		return isSignedByAtLeast(message, count(), executor);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%s[%s]", getClass().getSimpleName(), this.keyToSignature);
@@ -125,33 +226,84 @@ public final class ECDSASignatures implements Signatures {
 		return Objects.hash(keyToSignature);
 	}
 
-	@JsonProperty("signatures")
+	// Version 101 layout: raw key bytes and signatures in parallel arrays, sorted by key bytes
+
+	@JsonProperty("keys")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private List<byte[]> getSerializerKeys() {
+		return sortedKeys().stream()
+			.map(ECPublicKey::bytes)
+			.collect(Collectors.toList());
+	}
+
+	@JsonProperty("values")
 	@DsonOutput(DsonOutput.Output.ALL)
-	private Map<String, ECDSASignature> getSerializerSignatures() {
-		if (this.keyToSignature != null) {
-			return this.keyToSignature.entrySet().stream()
-					.collect(Collectors.toMap(e -> encodePublicKey(e.getKey()), Map.Entry::getValue));
+	private List<ECDSASignature> getSerializerValues() {
+		return sortedKeys().stream()
+			.map(this.keyToSignature::get)
+			.collect(Collectors.toList());
+	}
+
+	@JsonProperty("version")
+	private void setSerializerVersion(short version) {
+		// Earlier versions are converted on decode, so that equal instances always have the same
+		// serialized form, which is that of the current version
+	}
+
+	// Properties may be deserialized in any order, so both layouts are decoded once all have been read
+	@JsonCreator
+	private static ECDSASignatures fromSerializer(
+		@JsonProperty("keys") List<byte[]> keys,
+		@JsonProperty("values") List<ECDSASignature> values,
+		@JsonProperty("signatures") Map<String, ECDSASignature> signatures
+	) {
+		final ECDSASignatures result = new ECDSASignatures();
+		if (keys != null || values != null) {
+			result.setSerializerKeysAndValues(keys, values);
+		} else if (signatures != null) {
+			result.setSerializerSignatures(signatures);
 		}
-		return null;
+		return result;
 	}
 
-	@JsonProperty("signatures")
-	private void setSerializerSignatures(Map<String, ECDSASignature> signatures) {
-		if (signatures != null) {
-			this.keyToSignature = signatures.entrySet().stream()
-					.collect(ImmutableMap.toImmutableMap(e -> decodePublicKey(e.getKey()), Map.Entry::getValue));
-		} else {
-			this.keyToSignature = null;
+	private void setSerializerKeysAndValues(List<byte[]> keys, List<ECDSASignature> values) {
+		if (keys == null || values == null) {
+			throw new IllegalStateException(String.format(
+				"Both keys and signatures are required, but only %s present", keys == null ? "signatures are" : "keys are"
+			));
+		}
+		if (keys.size() != values.size()) {
+			throw new IllegalStateException(String.format(
+				"Number of keys (%s) and signatures (%s) do not match", keys.size(), values.size()
+			));
 		}
+		ImmutableMap.Builder<ECPublicKey, ECDSASignature> builder = ImmutableMap.builder();
+		for (int i = 0; i < keys.size(); i++) {
+			builder.put(decodePublicKey(keys.get(i)), values.get(i));
+		}
+		this.keyToSignature = builder.build();
+	}
+
+	private List<ECPublicKey> sortedKeys() {
+		return this.keyToSignature.keySet().stream()
+			.sorted(Comparator.comparing(ECPublicKey::bytes, UnsignedBytes.lexicographicalComparator()))
+			.collect(Collectors.toList());
 	}
 
-	private String encodePublicKey(ECPublicKey key) {
-		return Bytes.toHexString(key.getBytes());
+	// Version 100 layout: map of hex encoded keys to signatures, still read but no longer written
+
+	private void setSerializerSignatures(Map<String, ECDSASignature> signatures) {
+		this.keyToSignature = signatures.entrySet().stream()
+				.collect(ImmutableMap.toImmutableMap(e -> decodePublicKey(e.getKey()), Map.Entry::getValue));
 	}
 
 	private ECPublicKey decodePublicKey(String str) {
+		return decodePublicKey(Bytes.fromHexString(str));
+	}
+
+	private ECPublicKey decodePublicKey(byte[] bytes) {
 		try {
-			return ECPublicKey.fromBytes(Bytes.fromHexString(str));
+			return ECPublicKey.fromBytes(bytes);
 		} catch (PublicKeyException e) {
 			throw new IllegalStateException("Error decoding public key", e);
 		}
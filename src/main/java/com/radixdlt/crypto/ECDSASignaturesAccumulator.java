@@ -0,0 +1,130 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A mutable, thread-safe collector of {@link ECDSASignature}s of a message, for example votes
+ * arriving from the network, which produces an immutable {@link ECDSASignatures} once a quorum
+ * of distinct signers has been reached.
+ * <p>
+ * Unlike repeated calls to {@link ECDSASignatures#concatenate(ECPublicKey, Signature)}, which
+ * copy all previously collected signatures each time, adding a signature is a constant time,
+ * lock-free operation.  Signatures are only copied once, when the quorum is reached.
+ * <p>
+ * Each signature is verified before it is added, so that a forged signature cannot take the
+ * place of a signer's genuine one.
+ */
+@ThreadSafe
+public final class ECDSASignaturesAccumulator {
+	private final HashCode message;
+	private final int quorum;
+	private final ConcurrentMap<ECPublicKey, ECDSASignature> signatures = new ConcurrentHashMap<>();
+	private final AtomicInteger count = new AtomicInteger();
+	private final AtomicReference<ECDSASignatures> result = new AtomicReference<>();
+
+	/**
+	 * Creates an accumulator that completes once valid signatures of {@code message} from
+	 * {@code quorum} distinct signers have been added.
+	 *
+	 * @param message The hash of the message being signed
+	 * @param quorum The number of distinct signers required, which must be positive
+	 */
+	public ECDSASignaturesAccumulator(HashCode message, int quorum) {
+		if (quorum <= 0) {
+			throw new IllegalArgumentException("Quorum must be positive: " + quorum);
+		}
+		this.message = Objects.requireNonNull(message);
+		this.quorum = quorum;
+	}
+
+	/**
+	 * Adds a signature.  Signatures that do not verify are ignored, only the first valid
+	 * signature from each signer is retained, and signatures added after the quorum has been
+	 * reached are ignored.
+	 *
+	 * @param publicKey The public key of the signer
+	 * @param signature The signature
+	 * @return The collected signatures if this call caused the quorum to be reached,
+	 * 		otherwise an empty {@link Optional}
+	 */
+	public Optional<ECDSASignatures> add(ECPublicKey publicKey, ECDSASignature signature) {
+		Objects.requireNonNull(publicKey);
+		Objects.requireNonNull(signature);
+		if (this.result.get() != null || this.signatures.containsKey(publicKey)) {
+			return Optional.empty();
+		}
+		// Verified outside of any atomic operation, so that other signers are not held up
+		if (!publicKey.verify(this.message, signature) || this.signatures.putIfAbsent(publicKey, signature) != null) {
+			return Optional.empty();
+		}
+		if (this.count.incrementAndGet() != this.quorum) {
+			return Optional.empty();
+		}
+		// Exactly one thread reaches the quorum.  Signatures added concurrently may also be included.
+		ECDSASignatures frozen = new ECDSASignatures(ImmutableMap.copyOf(this.signatures));
+		this.result.set(frozen);
+		return Optional.of(frozen);
+	}
+
+	/**
+	 * Returns the collected signatures, if the quorum has been reached.
+	 *
+	 * @return The collected signatures, or an empty {@link Optional} if the quorum has not been reached
+	 */
+	public Optional<ECDSASignatures> result() {
+		return Optional.ofNullable(this.result.get());
+	}
+
+	/**
+	 * Returns {@code true} if the quorum has been reached.
+	 */
+	public boolean isComplete() {
+		return this.result.get() != null;
+	}
+
+	/**
+	 * Returns the number of distinct signers collected so far.
+	 */
+	public int count() {
+		return this.count.get();
+	}
+
+	/**
+	 * Returns the number of distinct signers required.
+	 */
+	public int quorum() {
+		return this.quorum;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s/%s]", getClass().getSimpleName(), count(), this.quorum);
+	}
+}
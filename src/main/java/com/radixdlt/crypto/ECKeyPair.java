@@ -17,6 +17,7 @@
 
 package com.radixdlt.crypto;
 
+import com.google.common.hash.HashCode;
 import com.radixdlt.SecurityCritical;
 import com.radixdlt.SecurityCritical.SecurityKind;
 import com.radixdlt.crypto.encryption.ECIES;
@@ -26,12 +27,9 @@ import com.radixdlt.crypto.exception.PrivateKeyException;
 import com.radixdlt.crypto.exception.PublicKeyException;
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.utils.Bytes;
-import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
-import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
-import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
-import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
-import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.util.BigIntegers;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -39,6 +37,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -59,27 +58,35 @@ public final class ECKeyPair implements Signing<ECDSASignature> {
 
 	/**
 	 * Generates a new private and public key pair based on randomness.
+	 * <p>
+	 * The public key is computed directly from the random scalar using the key handler's
+	 * fixed-base multiplication over the precomputed generator, without going through a
+	 * key pair generator or JCA provider.
+	 *
 	 * @return a newly generated private key and it's corresponding {@link ECPublicKey}.
 	 */
 	public static ECKeyPair generateNew() {
 		try {
-			ECKeyPairGenerator generator = new ECKeyPairGenerator();
-			ECKeyGenerationParameters keygenParams = new ECKeyGenerationParameters(ECKeyUtils.domain(), ECKeyUtils.secureRandom());
-			generator.init(keygenParams);
-			AsymmetricCipherKeyPair keypair = generator.generateKeyPair();
-			ECPrivateKeyParameters privParams = (ECPrivateKeyParameters) keypair.getPrivate();
-			ECPublicKeyParameters pubParams = (ECPublicKeyParameters) keypair.getPublic();
-
-			final ECPublicKey publicKey = ECPublicKey.fromBytes(pubParams.getQ().getEncoded(true));
-			byte[] privateKeyBytes = ECKeyUtils.adjustArray(privParams.getD().toByteArray(), BYTES);
-			ECKeyUtils.validatePrivate(privateKeyBytes);
-
+			byte[] privateKeyBytes = randomPrivateKey();
+			ECPublicKey publicKey = ECPublicKey.fromBytes(ECKeyUtils.keyHandler.computePublicKey(privateKeyBytes));
 			return new ECKeyPair(privateKeyBytes, publicKey);
 		} catch (Exception e) {
 			throw new IllegalStateException("Failed to generate ECKeyPair", e);
 		}
 	}
 
+	// Same selection as BouncyCastle's ECKeyPairGenerator: uniform in [1, n) and rejecting low NAF weight scalars
+	private static byte[] randomPrivateKey() {
+		BigInteger n = ECKeyUtils.domain().getN();
+		int minWeight = n.bitLength() >>> 2;
+		SecureRandom random = ECKeyUtils.secureRandom();
+		BigInteger d;
+		do {
+			d = BigIntegers.createRandomBigInteger(n.bitLength(), random);
+		} while (d.signum() <= 0 || d.compareTo(n) >= 0 || WNafUtil.getNafWeight(d) < minWeight);
+		return BigIntegers.asUnsignedByteArray(BYTES, d);
+	}
+
 	/**
 	 * Generates a new, deterministic {@code ECKeyPair} instance by <b>hashing<b/> the
 	 * provided seed.
@@ -154,6 +161,55 @@ public final class ECKeyPair implements Signing<ECDSASignature> {
 		return ECKeyUtils.keyHandler.sign(data, this.privateKey, enforceLowS, beDeterministic);
 	}
 
+	/**
+	 * Signs data using the ECPrivateKey resulting in an ECDSA signature that includes a
+	 * recovery id, allowing the public key to be recovered using
+	 * {@link ECPublicKey#recoverFrom(byte[], ECDSASignature)} rather than sent alongside the signature.
+	 *
+	 * @param hash The hash to sign
+	 * @param enforceLowS If signature should enforce low values of signature part `S`, according to
+	 * <a href="https://github.com/bitcoin/bips/blob/master/bip-0062.mediawiki#Low_S_values_in_signatures">BIP-62</a>
+	 * @param beDeterministic If signing should use randomness or be deterministic according to
+	 * <a href="https://tools.ietf.org/html/rfc6979">RFC6979</a>.
+	 * @return An ECDSA Signature with recovery id.
+	 */
+	public ECDSASignature signRecoverable(byte[] hash, boolean enforceLowS, boolean beDeterministic) {
+		return ECKeyUtils.keyHandler.signRecoverable(hash, this.privateKey, enforceLowS, beDeterministic);
+	}
+
+	/**
+	 * Signs the specified hash, resulting in a deterministic, low-S ECDSA signature that includes
+	 * a recovery id.
+	 *
+	 * @param hash The hash to sign
+	 * @return An ECDSA Signature with recovery id.
+	 * @see #signRecoverable(byte[], boolean, boolean)
+	 */
+	public ECDSASignature signRecoverable(HashCode hash) {
+		return signRecoverable(hash.asBytes(), true, true);
+	}
+
+	/**
+	 * Creates a long-lived signing context for this key pair, which avoids re-deriving
+	 * signing parameters on every call when signing repeatedly.
+	 *
+	 * @return A deterministic signer for this key pair
+	 * @see DeterministicSigner
+	 */
+	public DeterministicSigner deterministicSigner() {
+		return DeterministicSigner.create(this);
+	}
+
+	/**
+	 * Creates a signer producing BIP-340 Schnorr signatures with this key pair.
+	 *
+	 * @return A Schnorr signer for this key pair
+	 * @see SchnorrSigner
+	 */
+	public SchnorrSigner schnorrSigner() {
+		return SchnorrSigner.create(this);
+	}
+
 	@Override
 	public boolean canProduceSignatureForScheme(SignatureScheme signatureScheme) {
 		return SignatureScheme.ECDSA.equals(signatureScheme);
@@ -221,7 +277,9 @@ public final class ECKeyPair implements Signing<ECDSASignature> {
 
 	public EncryptedPrivateKey encryptPrivateKeyWithPublicKey(ECPublicKey publicKeyUsedToEncrypt) {
 		try {
-			return new EncryptedPrivateKey(publicKeyUsedToEncrypt.encrypt(this.privateKey));
+			return new EncryptedPrivateKey(
+				publicKeyUsedToEncrypt.encrypt(this.privateKey), EncryptedPrivateKey.recipientHint(publicKeyUsedToEncrypt)
+			);
 		} catch (ECIESException e) {
 			throw new IllegalStateException("Failed to encrypt `this.privateKey` with provided `ECPublicKey`", e);
 		}
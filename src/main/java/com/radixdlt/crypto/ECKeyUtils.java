@@ -18,6 +18,7 @@
 package com.radixdlt.crypto;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
 import com.google.common.primitives.UnsignedBytes;
 import com.radixdlt.crypto.exception.PrivateKeyException;
 import com.radixdlt.crypto.exception.PublicKeyException;
@@ -28,12 +29,17 @@ import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.jce.spec.ECParameterSpec;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
 
+import java.math.BigInteger;
 import java.security.Provider;
 import java.security.SecureRandom;
 import java.security.Security;
 import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * Utilities used by both {@link ECPublicKey} and {@link ECKeyPair}.
@@ -102,8 +108,37 @@ public class ECKeyUtils {
 				|| !currentBouncyCastleProvider.getVersionStr().equals(requiredBouncyCastleProvider.getVersionStr());
 	}
 
+	/**
+	 * System property specifying the maximum number of successful signature
+	 * verifications to remember.  Verification caching is disabled if this is
+	 * not set, or is not a positive number.
+	 */
+	public static final String VERIFICATION_CACHE_SIZE_PROPERTY = "com.radixdlt.crypto.verification_cache_size";
+
 	// Must be after secureRandom init
-	static final KeyHandler keyHandler = new BouncyCastleKeyHandler(curve);
+	static final KeyHandler keyHandler = createKeyHandler();
+
+	private static KeyHandler createKeyHandler() {
+		KeyHandler handler = new BouncyCastleKeyHandler(curve);
+		long cacheSize = Long.getLong(VERIFICATION_CACHE_SIZE_PROPERTY, 0L);
+		if (cacheSize > 0L) {
+			handler = new CachingKeyHandler(handler, cacheSize);
+		}
+		return handler;
+	}
+
+	/**
+	 * Returns statistics for the signature verification cache, if enabled with
+	 * the {@value #VERIFICATION_CACHE_SIZE_PROPERTY} system property.
+	 *
+	 * @return Cache statistics, or {@link Optional#empty()} if verification caching is disabled
+	 */
+	public static Optional<CacheStats> verificationCacheStats() {
+		if (keyHandler instanceof CachingKeyHandler) {
+			return Optional.of(((CachingKeyHandler) keyHandler).stats());
+		}
+		return Optional.empty();
+	}
 
 	static void validatePrivate(byte[] privateKey) throws PrivateKeyException {
 		if (privateKey == null) {
@@ -150,6 +185,64 @@ public class ECKeyUtils {
 		}
 	}
 
+	/**
+	 * Converts a hash to the integer {@code e} used in ECDSA, truncating it to the
+	 * bit length of the curve order if required.
+	 */
+	static BigInteger calculateE(BigInteger n, byte[] hash) {
+		final int log2n = n.bitLength();
+		final int hashBitLength = hash.length * Byte.SIZE;
+		final BigInteger e = new BigInteger(1, hash);
+		return log2n < hashBitLength ? e.shiftRight(hashBitLength - log2n) : e;
+	}
+
+	/**
+	 * Recovers the public key point from a signature with a recovery id, as described in
+	 * <a href="https://www.secg.org/sec1-v2.pdf">SEC 1</a> section 4.1.6.
+	 *
+	 * @param hash The hash that was signed
+	 * @param signature The signature, which must include a recovery id
+	 * @return The normalised public key point
+	 * @throws PublicKeyException if no public key can be recovered from the signature
+	 */
+	static ECPoint recoverPublicKey(byte[] hash, ECDSASignature signature) throws PublicKeyException {
+		if (!signature.hasRecoveryId()) {
+			throw new PublicKeyException("Signature has no recovery id");
+		}
+		final BigInteger n = domain.getN();
+		final BigInteger r = signature.getR();
+		final BigInteger s = signature.getS();
+		if (r.signum() <= 0 || r.compareTo(n) >= 0 || s.signum() <= 0 || s.compareTo(n) >= 0) {
+			throw new PublicKeyException("Signature components out of range");
+		}
+
+		final int recoveryId = signature.getRecoveryId();
+		final BigInteger x = (recoveryId & 2) == 0 ? r : r.add(n);
+		if (!domain.getCurve().isValidFieldElement(x)) {
+			throw new PublicKeyException("Recovery id does not match signature");
+		}
+		final byte[] encodedR = new byte[ECPublicKey.BYTES + 1];
+		encodedR[0] = (byte) ((recoveryId & 1) == 0 ? 0x02 : 0x03);
+		System.arraycopy(BigIntegers.asUnsignedByteArray(ECPublicKey.BYTES, x), 0, encodedR, 1, ECPublicKey.BYTES);
+
+		final ECPoint rPoint;
+		try {
+			rPoint = domain.getCurve().decodePoint(encodedR);
+		} catch (IllegalArgumentException e) {
+			throw new PublicKeyException(e);
+		}
+
+		// Q = r^-1 * (s * R - e * G).  Note that secp256k1 has cofactor 1, so R is always in the group.
+		final BigInteger rInverse = r.modInverse(n);
+		final BigInteger u1 = calculateE(n, hash).negate().multiply(rInverse).mod(n);
+		final BigInteger u2 = s.multiply(rInverse).mod(n);
+		final ECPoint q = ECAlgorithms.sumOfTwoMultiplies(domain.getG(), u1, rPoint, u2).normalize();
+		if (q.isInfinity()) {
+			throw new PublicKeyException("Recovered public key is the point at infinity");
+		}
+		return q;
+	}
+
 	/**
 	 * Adjusts the specified array so that is is equal to the specified length.
 	 * <ul>
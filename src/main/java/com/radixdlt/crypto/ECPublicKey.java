@@ -20,14 +20,20 @@ package com.radixdlt.crypto;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.hash.HashCode;
 import com.radixdlt.crypto.encryption.ECIES;
+import com.radixdlt.crypto.encryption.ECIESMode;
 import com.radixdlt.crypto.exception.ECIESException;
 import com.radixdlt.crypto.exception.PublicKeyException;
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.utils.Bytes;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.math.ec.ECPoint;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.function.Supplier;
 
@@ -37,10 +43,19 @@ import java.util.function.Supplier;
 public final class ECPublicKey {
     public static final int BYTES = 32;
 
+    // Maximum number of distinct keys retained by the interning cache
+    private static final int CACHE_SIZE = 4096;
+    // Keyed by a buffer wrapping the key's own (private) copy of the bytes
+    private static final Cache<ByteBuffer, ECPublicKey> cache = CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .recordStats()
+        .build();
+
     @JsonValue
     private final byte[] publicKey;
 
     private final Supplier<EUID> uid = Suppliers.memoize(this::computeUID);
+    private final Supplier<DecodedKey> decoded = Suppliers.memoize(this::computeDecodedKey);
     private final int hashCode;
 
     private ECPublicKey(byte[] key) {
@@ -52,10 +67,63 @@ public final class ECPublicKey {
         return Arrays.hashCode(publicKey);
     }
 
+    /**
+     * Returns an {@link ECPublicKey} for the specified key bytes.
+     * <p>
+     * Instances are interned in a size-bounded cache, so that repeatedly decoding the
+     * same key returns a shared instance, along with its cached {@link EUID} and
+     * decoded point.
+     *
+     * @param key The compressed or uncompressed public key bytes
+     * @return A public key for the specified bytes
+     * @throws PublicKeyException if {@code key} is not a valid public key
+     */
     @JsonCreator
     public static ECPublicKey fromBytes(byte[] key) throws PublicKeyException {
         ECKeyUtils.validatePublic(key);
-        return new ECPublicKey(key);
+        ECPublicKey cached = cache.getIfPresent(ByteBuffer.wrap(key));
+        if (cached != null) {
+            return cached;
+        }
+        ECPublicKey created = new ECPublicKey(key);
+        ECPublicKey existing = cache.asMap().putIfAbsent(ByteBuffer.wrap(created.publicKey), created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics for the interning cache used by
+     * {@link #fromBytes(byte[])} and {@link #fromBase64(String)}.
+     *
+     * @return A snapshot of the cache statistics
+     */
+    public static CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Recovers the public key that produced the specified signature over the specified hash.
+     *
+     * @param hash The hash that was signed
+     * @param signature The signature, which must include a recovery id
+     * @return The compressed public key of the signer
+     * @throws PublicKeyException if the signature has no recovery id, or no public key can be recovered
+     * @see ECKeyPair#signRecoverable(byte[], boolean, boolean)
+     */
+    public static ECPublicKey recoverFrom(HashCode hash, ECDSASignature signature) throws PublicKeyException {
+        return recoverFrom(hash.asBytes(), signature);
+    }
+
+    /**
+     * Recovers the public key that produced the specified signature over the specified hash.
+     *
+     * @param hash The hash that was signed
+     * @param signature The signature, which must include a recovery id
+     * @return The compressed public key of the signer
+     * @throws PublicKeyException if the signature has no recovery id, or no public key can be recovered
+     * @see ECKeyPair#signRecoverable(byte[], boolean, boolean)
+     */
+    public static ECPublicKey recoverFrom(byte[] hash, ECDSASignature signature) throws PublicKeyException {
+        return fromBytes(ECKeyUtils.keyHandler.recoverPublicKey(hash, signature).getEncoded(true));
     }
 
     @JsonCreator
@@ -67,7 +135,21 @@ public final class ECPublicKey {
         return this.uid.get();
     }
 
+    /**
+     * Returns a copy of the key bytes.  Instances are shared through the interning cache,
+     * so the key's own bytes are never exposed.
+     *
+     * @return A copy of the compressed or uncompressed public key bytes
+     */
     public byte[] getBytes() {
+        return this.publicKey.clone();
+    }
+
+    /**
+     * Returns the key bytes without copying, for internal callers that only read them.
+     * The returned array must not be modified.
+     */
+    byte[] bytes() {
         return this.publicKey;
     }
 
@@ -76,7 +158,11 @@ public final class ECPublicKey {
     }
 
     public ECPoint getPublicPoint() {
-        return ECKeyUtils.spec().getCurve().decodePoint(this.publicKey);
+        return this.decoded.get().point;
+    }
+
+    ECPublicKeyParameters getPublicKeyParameters() {
+        return this.decoded.get().parameters;
     }
 
     public boolean verify(HashCode hash, ECDSASignature signature) {
@@ -84,13 +170,25 @@ public final class ECPublicKey {
     }
 
     public boolean verify(byte[] hash, ECDSASignature signature) {
-        return signature != null && ECKeyUtils.keyHandler.verify(hash, signature, this.publicKey);
+        return signature != null && ECKeyUtils.keyHandler.verify(hash, signature, this);
+    }
+
+    public boolean verify(HashCode hash, SchnorrSignature signature) {
+        return verify(hash.asBytes(), signature);
+    }
+
+    public boolean verify(byte[] hash, SchnorrSignature signature) {
+        return signature != null && Schnorr.verify(hash, getPublicPoint(), signature.getBytes());
     }
 
     public byte[] encrypt(byte[] data) throws ECIESException {
         return ECIES.encrypt(data, this);
     }
 
+    public byte[] encrypt(byte[] data, ECIESMode mode) throws ECIESException {
+        return ECIES.encrypt(data, this, mode);
+    }
+
     public String toBase64() {
         return Bytes.toBase64String(this.publicKey);
     }
@@ -118,6 +216,23 @@ public final class ECPublicKey {
     }
 
     private EUID computeUID() {
-        return EUID.sha256(getBytes());
+        return EUID.sha256(this.publicKey);
+    }
+
+    private DecodedKey computeDecodedKey() {
+        return new DecodedKey(ECKeyUtils.spec().getCurve().decodePoint(this.publicKey).normalize());
+    }
+
+    /**
+     * Decoded forms of the key, computed once on first use as point decompression is relatively expensive.
+     */
+    private static final class DecodedKey {
+        private final ECPoint point;
+        private final ECPublicKeyParameters parameters;
+
+        private DecodedKey(ECPoint point) {
+            this.point = point;
+            this.parameters = new ECPublicKeyParameters(point, ECKeyUtils.domain());
+        }
     }
 }
@@ -17,6 +17,8 @@
 
 package com.radixdlt.crypto;
 
+import java.nio.ByteBuffer;
+
 /**
  * Interface for abstract 256-bit and 512-bit cryptographic hash functions.
  * <p>
@@ -47,6 +49,36 @@ interface HashHandler {
 	 */
 	byte[] hash512(byte[] data, int offset, int length);
 
+	/**
+	 * Hashes the specified portion of the array, writing the same 256-bit hash as
+	 * {@link #hash256(byte[], int, int)} to {@code output} instead of allocating a new array.
+	 * The output may overlap the data.
+	 *
+	 * @param data The data to hash
+	 * @param offset The offset within the array to start hashing data
+	 * @param length The number of bytes in the array to hash
+	 * @param output The array to write the hash to
+	 * @param outputOffset The offset within {@code output} to write the 32 byte hash
+	 */
+	void hash256(byte[] data, int offset, int length, byte[] output, int outputOffset);
+
+	/**
+	 * Hashes the remaining bytes of the buffer, returning a cryptographically secure 256-bit hash.
+	 * The position of the buffer is advanced to its limit.
+	 *
+	 * @param data The data to hash
+	 * @return The digest by applying the 256-bit/32-byte hash
+	 */
+	byte[] hash256(ByteBuffer data);
+
+	/**
+	 * Returns a new hasher that computes the same 256-bit hash as {@link #hash256(byte[], int, int)}
+	 * over data supplied in any number of parts.
+	 *
+	 * @return A new hasher, which need not be thread safe
+	 */
+	IncrementalHasher hasher256();
+
 	/**
 	 * Hashes the supplied array, returning a cryptographically secure 256-bit hash
 	 *
@@ -22,8 +22,12 @@ import com.google.common.primitives.UnsignedBytes;
 import com.radixdlt.SecurityCritical;
 import com.radixdlt.SecurityCritical.SecurityKind;
 
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * A class containing a collection of static methods for hashing and hashing-related utils.
@@ -47,6 +51,9 @@ public final class HashUtils {
 
 	private static final HashCode ZERO_256 = zero(32);
 
+	// Below this, splitting a batch between threads costs more than it saves
+	private static final int PARALLEL_BATCH_THRESHOLD = 512;
+
 	/**
 	 * Returns a hash consisting of 32 zero bytes.
 	 */
@@ -99,6 +106,88 @@ public final class HashUtils {
 		return HashCode.fromBytes(shaHashHandler.hash256(dataToBeHashed, offset, length));
 	}
 
+	/**
+	 * Hashes the remaining bytes of the buffer, returning a cryptographically secure 256-bit hash
+	 * equal to that of the same bytes in an array.  The position of the buffer is advanced to its limit.
+	 * Buffers may be heap, direct or memory mapped, and are not copied in full.
+	 *
+	 * @param dataToBeHashed The data to hash
+	 * @return The digest by applying the 256-bit/32-byte hash function.
+	 */
+	public static HashCode sha256(ByteBuffer dataToBeHashed) {
+		return HashCode.fromBytes(shaHashHandler.hash256(dataToBeHashed));
+	}
+
+	/**
+	 * Returns a new hasher computing the same hash as {@link #sha256(byte[])} over data supplied
+	 * in any number of parts, for hashing data that is not available in a single array or buffer.
+	 *
+	 * @return A new hasher, which is not thread safe
+	 */
+	public static IncrementalHasher sha256Hasher() {
+		return shaHashHandler.hasher256();
+	}
+
+	/**
+	 * Hashes each of the supplied arrays, returning the same hashes as calling {@link #sha256(byte[])}
+	 * for each in turn.  Large batches are hashed in parallel using the common fork join pool.
+	 *
+	 * @param dataToBeHashed The messages to hash
+	 * @return The hashes of the messages, in the same order
+	 */
+	public static List<HashCode> sha256Batch(List<byte[]> dataToBeHashed) {
+		byte[][] messages = dataToBeHashed.toArray(new byte[0][]);
+		HashCode[] hashes = new HashCode[messages.length];
+		batchIndices(messages.length).forEach(i -> hashes[i] = HashCode.fromBytes(shaHashHandler.hash256(messages[i])));
+		return Arrays.asList(hashes);
+	}
+
+	/**
+	 * Hashes consecutive messages of {@code messageLength} bytes, taken from the remaining bytes of the
+	 * buffer, returning the same hashes as calling {@link #sha256(byte[])} for each in turn.  The buffer
+	 * is not modified, and large batches are hashed in parallel using the common fork join pool.
+	 *
+	 * @param dataToBeHashed The messages to hash, which may be a heap, direct or memory mapped buffer
+	 * @param messageLength The length of each message
+	 * @return The hashes of the messages, in order
+	 * @throws IllegalArgumentException if the remaining bytes are not a whole number of messages
+	 */
+	public static List<HashCode> sha256Batch(ByteBuffer dataToBeHashed, int messageLength) {
+		int remaining = dataToBeHashed.remaining();
+		if (messageLength <= 0 || remaining % messageLength != 0) {
+			throw new IllegalArgumentException(String.format("%s bytes are not a whole number of %s byte messages", remaining, messageLength));
+		}
+		HashCode[] hashes = new HashCode[remaining / messageLength];
+		int start = dataToBeHashed.position();
+		if (dataToBeHashed.hasArray()) {
+			byte[] array = dataToBeHashed.array();
+			int offset = dataToBeHashed.arrayOffset() + start;
+			batchIndices(hashes.length).forEach(i ->
+				hashes[i] = HashCode.fromBytes(shaHashHandler.hash256(array, offset + i * messageLength, messageLength))
+			);
+		} else {
+			batchIndices(hashes.length).forEach(i -> {
+				ByteBuffer message = dataToBeHashed.duplicate();
+				message.limit(start + (i + 1) * messageLength).position(start + i * messageLength);
+				hashes[i] = HashCode.fromBytes(shaHashHandler.hash256(message));
+			});
+		}
+		return Arrays.asList(hashes);
+	}
+
+	/**
+	 * Hashes the specified portion of the array as {@link #sha256(byte[], int, int)} does, writing the
+	 * 32 byte hash to {@code output} without allocating.  The output may overlap the data.
+	 */
+	static void sha256(byte[] dataToBeHashed, int offset, int length, byte[] output, int outputOffset) {
+		shaHashHandler.hash256(dataToBeHashed, offset, length, output, outputOffset);
+	}
+
+	static IntStream batchIndices(int size) {
+		IntStream indices = IntStream.range(0, size);
+		return size >= PARALLEL_BATCH_THRESHOLD ? indices.parallel() : indices;
+	}
+
 	/**
 	 * Hashes the specified portion of the array, returning a cryptographically secure 512-bit hash.
 	 *
@@ -0,0 +1,99 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Computes a hash over data supplied in any number of parts, giving the same result
+ * as hashing the concatenation of those parts in a single call.
+ * <p>
+ * Instances are obtained from {@link HashUtils#sha256Hasher()}, and are not thread safe.
+ */
+public interface IncrementalHasher {
+
+	/**
+	 * Adds a single byte to the data being hashed.
+	 *
+	 * @param data The byte to hash
+	 * @return This hasher
+	 */
+	IncrementalHasher update(byte data);
+
+	/**
+	 * Adds the specified portion of the array to the data being hashed.
+	 *
+	 * @param data The data to hash
+	 * @param offset The offset within the array to start hashing data
+	 * @param length The number of bytes in the array to hash
+	 * @return This hasher
+	 */
+	IncrementalHasher update(byte[] data, int offset, int length);
+
+	/**
+	 * Adds the remaining bytes of the buffer to the data being hashed, advancing its position to its limit.
+	 * Buffers may be heap, direct or memory mapped.  Heap buffers are hashed in place, and others
+	 * through a small reused buffer, so the data is never copied in full.
+	 *
+	 * @param data The data to hash
+	 * @return This hasher
+	 */
+	IncrementalHasher update(ByteBuffer data);
+
+	/**
+	 * Completes the hash of all data added since this hasher was created or last completed,
+	 * and resets it ready to hash new data.
+	 *
+	 * @return The hash of the data
+	 */
+	HashCode hash();
+
+	/**
+	 * Adds the supplied array to the data being hashed.
+	 *
+	 * @param data The data to hash
+	 * @return This hasher
+	 */
+	default IncrementalHasher update(byte[] data) {
+		return update(data, 0, data.length);
+	}
+
+	/**
+	 * Returns an {@link OutputStream} that adds everything written to it to the data being hashed,
+	 * so that encoders can write directly into the hash.  Closing the stream has no effect.
+	 *
+	 * @return A stream writing to this hasher
+	 */
+	default OutputStream asOutputStream() {
+		return new OutputStream() {
+			@Override
+			public void write(int b) {
+				update((byte) b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				update(b, off, len);
+			}
+		};
+	}
+}
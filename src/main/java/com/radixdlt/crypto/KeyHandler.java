@@ -19,6 +19,10 @@ package com.radixdlt.crypto;
 
 import com.radixdlt.crypto.exception.PrivateKeyException;
 import com.radixdlt.crypto.exception.PublicKeyException;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Interface for signature and public key computation functions.
@@ -43,6 +47,32 @@ interface KeyHandler {
 	 */
 	ECDSASignature sign(byte[] hash, byte[] privateKey, boolean enforceLowS, boolean useDeterministicSignatures);
 
+	/**
+	 * Sign the specified hash with the specified private key, producing a signature that
+	 * includes a recovery id, so that the public key can later be recovered using
+	 * {@link #recoverPublicKey(byte[], ECDSASignature)}.
+	 * <p>
+	 * The {@code r} and {@code s} values are the same as those produced by
+	 * {@link #sign(byte[], byte[], boolean, boolean)} with the same arguments, when deterministic.
+	 *
+	 * @param hash The hash to sign
+	 * @param privateKey The private key to sign the hash with
+	 * @param enforceLowS If signature should enforce low values of signature part {@code S}
+	 * @param useDeterministicSignatures If signing should use randomness or be deterministic
+	 * @return An {@link ECDSASignature} with {@code r}, {@code s} and recovery id values included
+	 */
+	ECDSASignature signRecoverable(byte[] hash, byte[] privateKey, boolean enforceLowS, boolean useDeterministicSignatures);
+
+	/**
+	 * Recover the public key that produced the specified signature over the specified hash.
+	 *
+	 * @param hash The hash that was signed
+	 * @param signature The signature, which must include a recovery id
+	 * @return The normalised public key point
+	 * @throws PublicKeyException if the signature has no recovery id, or no public key can be recovered
+	 */
+	ECPoint recoverPublicKey(byte[] hash, ECDSASignature signature) throws PublicKeyException;
+
 	/**
 	 * Verify the specified signature against the specified hash with the
 	 * specified public key.
@@ -55,6 +85,39 @@ interface KeyHandler {
 	 */
 	boolean verify(byte[] hash, ECDSASignature signature, byte[] publicKey);
 
+	/**
+	 * Verify the specified signature against the specified hash with the
+	 * specified public key.  Implementations may make use of values cached
+	 * in {@code publicKey} to avoid decoding the key on each call.
+	 *
+	 * @param hash The hash to verify against
+	 * @param signature The signature to verify
+	 * @param publicKey The public key to verify the signature with
+	 * @return An boolean indicating whether the signature could be successfully validated
+	 */
+	default boolean verify(byte[] hash, ECDSASignature signature, ECPublicKey publicKey) {
+		return verify(hash, signature, publicKey.bytes());
+	}
+
+	/**
+	 * Verify a batch of signatures, where entry {@code i} of each of the lists
+	 * together form one (hash, signature, public key) triple to verify.
+	 * <p>
+	 * Verification is split into chunks which are run on the specified
+	 * {@code executor}, so that throughput scales with the number of available
+	 * cores.  Small batches are verified on the calling thread.
+	 *
+	 * @param hashes The hashes to verify against
+	 * @param signatures The signatures to verify
+	 * @param publicKeys The public keys to verify the signatures with
+	 * @param executor The executor to run verification tasks on
+	 * @return An array where element {@code i} indicates whether signature {@code i} could be successfully validated
+	 * @throws IllegalArgumentException if the lists are not all the same size
+	 */
+	default boolean[] verify(List<byte[]> hashes, List<ECDSASignature> signatures, List<ECPublicKey> publicKeys, Executor executor) {
+		return BatchVerifier.verify(this, hashes, signatures, publicKeys, executor);
+	}
+
 	/**
 	 * Compute a public key for the specified private key.
 	 *
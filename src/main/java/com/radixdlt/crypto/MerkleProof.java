@@ -0,0 +1,180 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A proof that a leaf is included in a {@link MerkleTree} with a given root, consisting of
+ * the position of the leaf and the sibling of each node on the path from the leaf to the root.
+ * <p>
+ * The size of the tree recorded in a proof is only used to check its shape, as a proof that
+ * describes a smaller tree can relate an interior node to the root.  Proofs are therefore
+ * verified against a tree size that the caller trusts, alongside the trusted root.
+ * <p>
+ * Proofs are immutable, and {@link #verify(HashCode, HashCode, int)} may be called from any thread.
+ */
+@SecurityCritical(SecurityKind.HASHING)
+public final class MerkleProof {
+	private static final int HASH_BYTES = MerkleTree.HASH_BYTES;
+
+	// Holds the current node and its sibling in order, or the current node and the root
+	private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[2 * HASH_BYTES]);
+
+	private final int index;
+	private final int treeSize;
+	// The siblings on the path from the leaf to the root, as consecutive hashes
+	private final byte[] siblings;
+
+	MerkleProof(int index, int treeSize, byte[] siblings) {
+		this.index = index;
+		this.treeSize = treeSize;
+		this.siblings = siblings;
+	}
+
+	/**
+	 * Creates a proof from its parts, for example as received from another node.
+	 *
+	 * @param index The index of the leaf in the tree
+	 * @param treeSize The number of leaves in the tree
+	 * @param siblings The 256-bit sibling hashes, from the leaf to the root
+	 * @return The proof
+	 * @throws IllegalArgumentException if the index is not within the tree, or the number of siblings
+	 * 		does not match the position of the leaf, or any sibling is not 256 bits
+	 */
+	public static MerkleProof of(int index, int treeSize, List<HashCode> siblings) {
+		if (index < 0 || index >= treeSize) {
+			throw new IllegalArgumentException(String.format("Index %s is not within tree of size %s", index, treeSize));
+		}
+		int expected = siblingCount(index, treeSize);
+		if (siblings.size() != expected) {
+			throw new IllegalArgumentException(String.format("Expected %s siblings, not %s", expected, siblings.size()));
+		}
+		byte[] bytes = new byte[siblings.size() * HASH_BYTES];
+		for (int i = 0; i < siblings.size(); i++) {
+			HashCode sibling = siblings.get(i);
+			if (sibling.bits() != HASH_BYTES * Byte.SIZE) {
+				throw new IllegalArgumentException("Merkle proof siblings must be 256 bits, not " + sibling.bits());
+			}
+			sibling.writeBytesTo(bytes, i * HASH_BYTES, HASH_BYTES);
+		}
+		return new MerkleProof(index, treeSize, bytes);
+	}
+
+	/**
+	 * Returns the index of the leaf in the tree.
+	 */
+	public int index() {
+		return this.index;
+	}
+
+	/**
+	 * Returns the number of leaves in the tree.
+	 */
+	public int treeSize() {
+		return this.treeSize;
+	}
+
+	/**
+	 * Returns the sibling hashes on the path from the leaf to the root.
+	 */
+	public List<HashCode> siblings() {
+		List<HashCode> result = new ArrayList<>(this.siblings.length / HASH_BYTES);
+		for (int i = 0; i < this.siblings.length; i += HASH_BYTES) {
+			result.add(HashCode.fromBytes(Arrays.copyOfRange(this.siblings, i, i + HASH_BYTES)));
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether this proof shows that {@code leaf} is included in the tree with the specified
+	 * root and size.  Nothing is allocated, other than the first time this is called on a thread.
+	 *
+	 * @param leaf The 256-bit leaf hash
+	 * @param root The trusted 256-bit root hash of the tree
+	 * @param treeSize The trusted number of leaves in the tree
+	 * @return {@code true} if the leaf is included in the tree, otherwise {@code false}
+	 */
+	public boolean verify(HashCode leaf, HashCode root, int treeSize) {
+		if (treeSize != this.treeSize || leaf.bits() != HASH_BYTES * Byte.SIZE || root.bits() != HASH_BYTES * Byte.SIZE) {
+			return false;
+		}
+		byte[] nodes = scratch.get();
+		MerkleTree.hashLeaf(leaf, nodes, 0);
+		int node = this.index;
+		int levelSize = this.treeSize;
+		int sibling = 0;
+		while (levelSize > 1) {
+			// Promoted nodes have no sibling
+			if ((node ^ 1) < levelSize) {
+				if ((node & 1) == 1) {
+					System.arraycopy(nodes, 0, nodes, HASH_BYTES, HASH_BYTES);
+					System.arraycopy(this.siblings, sibling, nodes, 0, HASH_BYTES);
+				} else {
+					System.arraycopy(this.siblings, sibling, nodes, HASH_BYTES, HASH_BYTES);
+				}
+				MerkleTree.hashNode(nodes, 0, nodes, 0);
+				sibling += HASH_BYTES;
+			}
+			node >>>= 1;
+			levelSize = (levelSize + 1) >>> 1;
+		}
+		root.writeBytesTo(nodes, HASH_BYTES, HASH_BYTES);
+		return Arrays.equals(nodes, 0, HASH_BYTES, nodes, HASH_BYTES, 2 * HASH_BYTES);
+	}
+
+	private static int siblingCount(int index, int treeSize) {
+		int count = 0;
+		for (int node = index, levelSize = treeSize; levelSize > 1; node >>>= 1, levelSize = (levelSize + 1) >>> 1) {
+			if ((node ^ 1) < levelSize) {
+				count += 1;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof MerkleProof)) {
+			return false;
+		}
+		MerkleProof that = (MerkleProof) o;
+		return this.index == that.index && this.treeSize == that.treeSize && Arrays.equals(this.siblings, that.siblings);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.index, this.treeSize, Arrays.hashCode(this.siblings));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[index=%s, treeSize=%s, siblings=%s]", getClass().getSimpleName(), this.index, this.treeSize, siblings());
+	}
+}
@@ -0,0 +1,270 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A binary Merkle tree over 256-bit leaf hashes, such as the hashes of atoms or signatures.
+ * <p>
+ * Nodes are hashed with {@link HashUtils#sha256(byte[])}, following the double SHA-256 convention
+ * used elsewhere, with leaves and interior nodes domain separated as in RFC 6962: the node for a
+ * leaf is the hash of {@code 0x00} followed by the leaf, and each parent the hash of {@code 0x01}
+ * followed by its two children concatenated.  An interior node therefore can't be passed off as
+ * a leaf.  Where a level has an odd number of nodes, the last is promoted unchanged to the level
+ * above, rather than paired with a copy of itself.
+ * <p>
+ * Trees are immutable and thread safe.  They can be created from a list of leaves with
+ * {@link #of(List)}, which hashes large levels in parallel, or with a {@link Builder}, which
+ * hashes pairs of nodes as leaves are added.  Both produce the same tree.
+ */
+@SecurityCritical(SecurityKind.HASHING)
+public final class MerkleTree {
+	static final int HASH_BYTES = 32;
+	private static final byte LEAF_PREFIX = 0x00;
+	private static final byte NODE_PREFIX = 0x01;
+
+	// Holds the prefix followed by the leaf or pair of children being hashed
+	private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[1 + 2 * HASH_BYTES]);
+
+	// Each level holds consecutive hashes, the first level holding the leaf nodes and the last the root
+	private final byte[][] levels;
+
+	private MerkleTree(byte[][] levels) {
+		this.levels = levels;
+	}
+
+	/**
+	 * Creates a tree over the specified leaves.
+	 *
+	 * @param leaves The 256-bit leaf hashes, in order
+	 * @return The tree
+	 * @throws IllegalArgumentException if there are no leaves, or any is not 256 bits
+	 */
+	public static MerkleTree of(List<HashCode> leaves) {
+		if (leaves.isEmpty()) {
+			throw new IllegalArgumentException("Merkle tree must have at least one leaf");
+		}
+		HashCode[] leafHashes = leaves.toArray(new HashCode[0]);
+		byte[] level = new byte[leafHashes.length * HASH_BYTES];
+		HashUtils.batchIndices(leafHashes.length).forEach(i -> hashLeaf(leafHashes[i], level, i * HASH_BYTES));
+		List<byte[]> levels = new ArrayList<>();
+		levels.add(level);
+		while (levels.get(levels.size() - 1).length > HASH_BYTES) {
+			byte[] current = levels.get(levels.size() - 1);
+			int pairs = current.length / (2 * HASH_BYTES);
+			byte[] next = new byte[(current.length / HASH_BYTES + 1) / 2 * HASH_BYTES];
+			HashUtils.batchIndices(pairs).forEach(i -> hashNode(current, i * 2 * HASH_BYTES, next, i * HASH_BYTES));
+			if (next.length > pairs * HASH_BYTES) {
+				System.arraycopy(current, current.length - HASH_BYTES, next, next.length - HASH_BYTES, HASH_BYTES);
+			}
+			levels.add(next);
+		}
+		return new MerkleTree(levels.toArray(new byte[0][]));
+	}
+
+	/**
+	 * Returns a new builder, for creating a tree from leaves supplied one at a time.
+	 *
+	 * @return A new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the number of leaves in this tree.
+	 */
+	public int size() {
+		return this.levels[0].length / HASH_BYTES;
+	}
+
+	/**
+	 * Returns the root hash of this tree.
+	 */
+	public HashCode root() {
+		return HashCode.fromBytes(this.levels[this.levels.length - 1]);
+	}
+
+	/**
+	 * Returns a proof that the leaf at the specified index is included in this tree,
+	 * which can be verified against {@link #root()} and {@link #size()}.
+	 *
+	 * @param index The index of the leaf
+	 * @return The inclusion proof
+	 * @throws IndexOutOfBoundsException if there is no leaf at {@code index}
+	 */
+	public MerkleProof proof(int index) {
+		Objects.checkIndex(index, size());
+		byte[] siblings = new byte[(this.levels.length - 1) * HASH_BYTES];
+		int length = 0;
+		int node = index;
+		for (int level = 0; level < this.levels.length - 1; level++) {
+			int sibling = node ^ 1;
+			// Promoted nodes have no sibling
+			if (sibling * HASH_BYTES < this.levels[level].length) {
+				System.arraycopy(this.levels[level], sibling * HASH_BYTES, siblings, length, HASH_BYTES);
+				length += HASH_BYTES;
+			}
+			node >>>= 1;
+		}
+		return new MerkleProof(index, size(), Arrays.copyOf(siblings, length));
+	}
+
+	/**
+	 * Writes the node for the specified leaf to {@code output}.
+	 */
+	static void hashLeaf(HashCode leaf, byte[] output, int outputOffset) {
+		if (leaf.bits() != HASH_BYTES * Byte.SIZE) {
+			throw new IllegalArgumentException("Merkle tree leaves must be 256 bits, not " + leaf.bits());
+		}
+		byte[] data = scratch.get();
+		data[0] = LEAF_PREFIX;
+		leaf.writeBytesTo(data, 1, HASH_BYTES);
+		HashUtils.sha256(data, 0, 1 + HASH_BYTES, output, outputOffset);
+	}
+
+	/**
+	 * Writes the parent of the two consecutive nodes at {@code offset} in {@code nodes} to {@code output},
+	 * which may overlap the nodes.
+	 */
+	static void hashNode(byte[] nodes, int offset, byte[] output, int outputOffset) {
+		byte[] data = scratch.get();
+		data[0] = NODE_PREFIX;
+		System.arraycopy(nodes, offset, data, 1, 2 * HASH_BYTES);
+		HashUtils.sha256(data, 0, 1 + 2 * HASH_BYTES, output, outputOffset);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[size=%s, root=%s]", getClass().getSimpleName(), size(), root());
+	}
+
+	/**
+	 * Creates a {@link MerkleTree} from leaves added one at a time, hashing each pair of
+	 * nodes as soon as it is complete, so little work remains when the tree is built.
+	 * <p>
+	 * Builders are not thread safe.
+	 */
+	public static final class Builder {
+		private final List<Level> levels = new ArrayList<>();
+
+		private Builder() {
+			this.levels.add(new Level());
+		}
+
+		/**
+		 * Adds a leaf to the tree being built.
+		 *
+		 * @param leaf The 256-bit leaf hash
+		 * @return This builder
+		 * @throws IllegalArgumentException if {@code leaf} is not 256 bits
+		 */
+		public Builder add(HashCode leaf) {
+			Level leaves = this.levels.get(0);
+			hashLeaf(leaf, leaves.reserve(), leaves.size * HASH_BYTES);
+			leaves.size += 1;
+			addParents(this.levels, 0);
+			return this;
+		}
+
+		/**
+		 * Returns the number of leaves added.
+		 */
+		public int size() {
+			return this.levels.get(0).size;
+		}
+
+		/**
+		 * Builds a tree from the leaves added so far.  The builder may continue to be used.
+		 *
+		 * @return The tree
+		 * @throws IllegalStateException if no leaves have been added
+		 */
+		public MerkleTree build() {
+			if (size() == 0) {
+				throw new IllegalStateException("Merkle tree must have at least one leaf");
+			}
+			List<Level> complete = new ArrayList<>(this.levels.size());
+			for (Level level : this.levels) {
+				complete.add(level.copy());
+			}
+			// Promote the unpaired last node of each level, which may complete a pair in the level above
+			for (int i = 0; complete.get(i).size > 1 || i < complete.size() - 1; i++) {
+				Level level = complete.get(i);
+				if (level.size % 2 == 1) {
+					Level parent = level(complete, i + 1);
+					System.arraycopy(level.hashes, (level.size - 1) * HASH_BYTES, parent.reserve(), parent.size * HASH_BYTES, HASH_BYTES);
+					parent.size += 1;
+					addParents(complete, i + 1);
+				}
+			}
+			byte[][] result = new byte[complete.size()][];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = Arrays.copyOf(complete.get(i).hashes, complete.get(i).size * HASH_BYTES);
+			}
+			return new MerkleTree(result);
+		}
+
+		// Hashes the last pair of nodes of each level from the specified level upwards, while they complete a pair
+		private static void addParents(List<Level> levels, int from) {
+			for (int i = from; levels.get(i).size % 2 == 0; i++) {
+				Level level = levels.get(i);
+				Level parent = level(levels, i + 1);
+				byte[] parentHashes = parent.reserve();
+				hashNode(level.hashes, (level.size - 2) * HASH_BYTES, parentHashes, parent.size * HASH_BYTES);
+				parent.size += 1;
+			}
+		}
+
+		private static Level level(List<Level> levels, int index) {
+			if (index == levels.size()) {
+				levels.add(new Level());
+			}
+			return levels.get(index);
+		}
+	}
+
+	private static final class Level {
+		private byte[] hashes = new byte[16 * HASH_BYTES];
+		private int size;
+
+		// Ensures there is space for one more hash, returning the array to write it to
+		private byte[] reserve() {
+			if ((this.size + 1) * HASH_BYTES > this.hashes.length) {
+				this.hashes = Arrays.copyOf(this.hashes, this.hashes.length * 2);
+			}
+			return this.hashes;
+		}
+
+		private Level copy() {
+			Level copy = new Level();
+			copy.hashes = Arrays.copyOf(this.hashes, (this.size + 1) * HASH_BYTES);
+			copy.size = this.size;
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import com.radixdlt.crypto.exception.PublicKeyException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Two round, <a href="https://eprint.iacr.org/2020/1261">MuSig2</a> style multi-signatures,
+ * producing a single <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>
+ * {@link SchnorrSignature} that is valid for the aggregate of the signers' public keys.
+ * <p>
+ * Signing proceeds as follows:
+ * <ol>
+ *     <li>Each signer creates a {@link MuSigNonce} using {@link #generateNonce()}, and
+ *     sends its {@link MuSigNonce#getPublicNonce() public nonce} to an aggregator.</li>
+ *     <li>The aggregator combines the public nonces using {@link #aggregateNonces(List)},
+ *     and sends the aggregate nonce and message to each signer.</li>
+ *     <li>Each signer computes a partial signature using {@link #partialSign(ECKeyPair, MuSigNonce, byte[], List, byte[])}.</li>
+ *     <li>The aggregator combines the partial signatures using
+ *     {@link #aggregatePartialSignatures(byte[], List, byte[], List)}.</li>
+ * </ol>
+ * All parties must use the same list of signer keys, in the same order.
+ * <p>
+ * Note that the tagged hashes used follow the structure of BIP-327, but key aggregation does not
+ * apply its "second key" optimisation, and so aggregate keys are not interoperable with BIP-327.
+ */
+@SecurityCritical({ SecurityKind.SIG_SIGN, SecurityKind.SIG_VERIFY })
+public final class MuSig {
+	public static final int PUBLIC_NONCE_BYTES = (ECPublicKey.BYTES + 1) * 2;
+	public static final int PARTIAL_SIGNATURE_BYTES = Schnorr.COMPONENT_BYTES;
+
+	private static final SHA256Digest KEY_AGG_LIST_TAG = Schnorr.taggedDigest("KeyAgg list");
+	private static final SHA256Digest KEY_AGG_COEFFICIENT_TAG = Schnorr.taggedDigest("KeyAgg coefficient");
+	private static final SHA256Digest NONCE_COEFFICIENT_TAG = Schnorr.taggedDigest("MuSig/noncecoef");
+
+	private MuSig() {
+		throw new IllegalStateException("Can't construct");
+	}
+
+	/**
+	 * Generates a fresh secret nonce for a single signing session.
+	 *
+	 * @return A new secret nonce, which must be used at most once
+	 */
+	public static MuSigNonce generateNonce() {
+		return MuSigNonce.generate(ECKeyUtils.secureRandom());
+	}
+
+	/**
+	 * Computes the aggregate public key for the specified signers.
+	 *
+	 * @param signers The signers' public keys, in signing order
+	 * @return The aggregate public key
+	 */
+	public static ECPublicKey aggregateKey(List<ECPublicKey> signers) {
+		try {
+			return ECPublicKey.fromBytes(aggregatePoint(signers).getEncoded(true));
+		} catch (PublicKeyException e) {
+			throw new IllegalStateException("Aggregate key is not a valid public key", e);
+		}
+	}
+
+	/**
+	 * Combines the public nonces of all signers.
+	 *
+	 * @param publicNonces The signers' public nonces
+	 * @return The aggregate nonce
+	 * @throws IllegalArgumentException if any public nonce is malformed
+	 */
+	public static byte[] aggregateNonces(List<byte[]> publicNonces) {
+		if (publicNonces.isEmpty()) {
+			throw new IllegalArgumentException("No public nonces");
+		}
+		ECPoint r1 = ECKeyUtils.domain().getCurve().getInfinity();
+		ECPoint r2 = r1;
+		for (byte[] publicNonce : publicNonces) {
+			if (publicNonce.length != PUBLIC_NONCE_BYTES) {
+				throw new IllegalArgumentException("Public nonce must be " + PUBLIC_NONCE_BYTES + " bytes: " + publicNonce.length);
+			}
+			r1 = r1.add(decodeNoncePoint(publicNonce, 0));
+			r2 = r2.add(decodeNoncePoint(publicNonce, PUBLIC_NONCE_BYTES / 2));
+		}
+		return encodeNonce(r1, r2);
+	}
+
+	/**
+	 * Computes this signer's partial signature.  The secret nonce is consumed by this
+	 * call and cannot be used again.
+	 *
+	 * @param keyPair The signer's key pair
+	 * @param secretNonce The signer's secret nonce, whose public nonce contributed to {@code aggregateNonce}
+	 * @param aggregateNonce The aggregate of all signers' public nonces
+	 * @param signers All signers' public keys, in signing order
+	 * @param message The message (usually a hash) to sign
+	 * @return The partial signature
+	 * @throws IllegalArgumentException if {@code keyPair} is not one of {@code signers}
+	 * @throws IllegalStateException if {@code secretNonce} has already been used
+	 */
+	public static byte[] partialSign(ECKeyPair keyPair, MuSigNonce secretNonce, byte[] aggregateNonce, List<ECPublicKey> signers, byte[] message) {
+		final int index = signers.indexOf(keyPair.getPublicKey());
+		if (index < 0) {
+			throw new IllegalArgumentException("Key pair is not one of the signers");
+		}
+		final BigInteger[] k = secretNonce.consume();
+		final BigInteger n = ECKeyUtils.domain().getN();
+		final Session session = new Session(aggregateNonce, signers, message);
+
+		// Adjust for the implicit even Y of both the aggregate key and nonce point
+		BigInteger d = new BigInteger(1, keyPair.getPrivateKey());
+		if (session.q.getAffineYCoord().testBitZero()) {
+			d = n.subtract(d);
+		}
+		BigInteger k1 = k[0];
+		BigInteger k2 = k[1];
+		if (session.r.getAffineYCoord().testBitZero()) {
+			k1 = n.subtract(k1);
+			k2 = n.subtract(k2);
+		}
+
+		final BigInteger a = keyAggCoefficient(session.keyListHash, signers.get(index));
+		final BigInteger s = k1.add(session.b.multiply(k2)).add(session.e.multiply(a).multiply(d)).mod(n);
+		return Schnorr.toBytes(s);
+	}
+
+	/**
+	 * Combines all signers' partial signatures into a single signature, valid for the
+	 * {@link #aggregateKey(List) aggregate key} of the signers.
+	 *
+	 * @param aggregateNonce The aggregate of all signers' public nonces
+	 * @param signers All signers' public keys, in signing order
+	 * @param message The message (usually a hash) that was signed
+	 * @param partialSignatures The partial signatures of all signers
+	 * @return The aggregate signature
+	 */
+	public static SchnorrSignature aggregatePartialSignatures(
+		byte[] aggregateNonce, List<ECPublicKey> signers, byte[] message, List<byte[]> partialSignatures
+	) {
+		final BigInteger n = ECKeyUtils.domain().getN();
+		final Session session = new Session(aggregateNonce, signers, message);
+		BigInteger s = BigInteger.ZERO;
+		for (byte[] partialSignature : partialSignatures) {
+			final BigInteger si = new BigInteger(1, partialSignature);
+			if (partialSignature.length != PARTIAL_SIGNATURE_BYTES || si.compareTo(n) >= 0) {
+				throw new IllegalArgumentException("Invalid partial signature");
+			}
+			s = s.add(si);
+		}
+
+		final byte[] signature = new byte[Schnorr.SIGNATURE_BYTES];
+		System.arraycopy(session.r.getAffineXCoord().getEncoded(), 0, signature, 0, Schnorr.COMPONENT_BYTES);
+		System.arraycopy(Schnorr.toBytes(s.mod(n)), 0, signature, Schnorr.COMPONENT_BYTES, Schnorr.COMPONENT_BYTES);
+		return SchnorrSignature.wrap(signature);
+	}
+
+	/**
+	 * Verifies a signature against the aggregate key of the specified signers.
+	 *
+	 * @param message The message (usually a hash) that was signed
+	 * @param signers All signers' public keys, in signing order
+	 * @param signature The aggregate signature
+	 * @return {@code true} if the signature is valid
+	 */
+	public static boolean verify(byte[] message, List<ECPublicKey> signers, SchnorrSignature signature) {
+		return !signers.isEmpty() && verify(message, aggregatePoint(signers), signature);
+	}
+
+	/**
+	 * Verifies a signature against a previously {@link #aggregatePoint(List) aggregated} key,
+	 * avoiding re-aggregation when the same signers verify many messages.
+	 */
+	static boolean verify(byte[] message, ECPoint aggregatePoint, SchnorrSignature signature) {
+		return Schnorr.verify(message, aggregatePoint, signature.getBytes());
+	}
+
+	static ECPoint aggregatePoint(List<ECPublicKey> signers) {
+		if (signers.isEmpty()) {
+			throw new IllegalArgumentException("No signers");
+		}
+		final byte[] keyListHash = keyListHash(signers);
+		final ECPoint[] points = new ECPoint[signers.size()];
+		final BigInteger[] coefficients = new BigInteger[signers.size()];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = signers.get(i).getPublicPoint();
+			coefficients[i] = keyAggCoefficient(keyListHash, signers.get(i));
+		}
+		final ECPoint q = ECAlgorithms.sumOfMultiplies(points, coefficients).normalize();
+		if (q.isInfinity()) {
+			throw new IllegalArgumentException("Aggregate key is the point at infinity");
+		}
+		return q;
+	}
+
+	private static byte[] keyListHash(List<ECPublicKey> signers) {
+		final SHA256Digest digest = new SHA256Digest(KEY_AGG_LIST_TAG);
+		for (ECPublicKey signer : signers) {
+			final byte[] key = signer.getPublicPoint().getEncoded(true);
+			digest.update(key, 0, key.length);
+		}
+		final byte[] hash = new byte[digest.getDigestSize()];
+		digest.doFinal(hash, 0);
+		return hash;
+	}
+
+	private static BigInteger keyAggCoefficient(byte[] keyListHash, ECPublicKey signer) {
+		final byte[] hash = Schnorr.taggedHash(KEY_AGG_COEFFICIENT_TAG, keyListHash, signer.getPublicPoint().getEncoded(true));
+		return new BigInteger(1, hash).mod(ECKeyUtils.domain().getN());
+	}
+
+	static byte[] encodeNonce(ECPoint r1, ECPoint r2) {
+		final byte[] nonce = new byte[PUBLIC_NONCE_BYTES];
+		encodeNoncePoint(r1, nonce, 0);
+		encodeNoncePoint(r2, nonce, PUBLIC_NONCE_BYTES / 2);
+		return nonce;
+	}
+
+	// The point at infinity, which may result from aggregation, is encoded as all zeros
+	private static void encodeNoncePoint(ECPoint point, byte[] nonce, int offset) {
+		if (!point.isInfinity()) {
+			System.arraycopy(point.getEncoded(true), 0, nonce, offset, PUBLIC_NONCE_BYTES / 2);
+		}
+	}
+
+	private static ECPoint decodeNoncePoint(byte[] nonce, int offset) {
+		final byte[] encoded = new byte[PUBLIC_NONCE_BYTES / 2];
+		System.arraycopy(nonce, offset, encoded, 0, encoded.length);
+		if (encoded[0] == 0) {
+			return ECKeyUtils.domain().getCurve().getInfinity();
+		}
+		return ECKeyUtils.domain().getCurve().decodePoint(encoded);
+	}
+
+	/**
+	 * Values derived from the aggregate nonce, signers and message, shared by all signers.
+	 */
+	private static final class Session {
+		private final byte[] keyListHash;
+		private final ECPoint q;
+		private final ECPoint r;
+		private final BigInteger b;
+		private final BigInteger e;
+
+		private Session(byte[] aggregateNonce, List<ECPublicKey> signers, byte[] message) {
+			Objects.requireNonNull(message);
+			if (aggregateNonce.length != PUBLIC_NONCE_BYTES) {
+				throw new IllegalArgumentException("Aggregate nonce must be " + PUBLIC_NONCE_BYTES + " bytes: " + aggregateNonce.length);
+			}
+			final BigInteger n = ECKeyUtils.domain().getN();
+			this.keyListHash = keyListHash(signers);
+			this.q = aggregatePoint(signers);
+			final byte[] qx = this.q.getAffineXCoord().getEncoded();
+			this.b = new BigInteger(1, Schnorr.taggedHash(NONCE_COEFFICIENT_TAG, aggregateNonce, qx, message)).mod(n);
+
+			final ECPoint r1 = decodeNoncePoint(aggregateNonce, 0);
+			final ECPoint r2 = decodeNoncePoint(aggregateNonce, PUBLIC_NONCE_BYTES / 2);
+			final ECPoint rSum = r1.add(r2.multiply(this.b)).normalize();
+			this.r = rSum.isInfinity() ? ECKeyUtils.domain().getG() : rSum;
+			this.e = Schnorr.challenge(this.r.getAffineXCoord().getEncoded(), Schnorr.evenY(this.q), message);
+		}
+	}
+}
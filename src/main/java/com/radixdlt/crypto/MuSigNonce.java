@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * A secret nonce for a single {@link MuSig} signing session.
+ * <p>
+ * Re-using a nonce for two different signing sessions reveals the private key, so
+ * the secret part of a nonce is discarded once used to produce a partial signature.
+ */
+@SecurityCritical({ SecurityKind.SIG_SIGN })
+public final class MuSigNonce {
+	private final byte[] publicNonce;
+	private BigInteger[] secretNonce;
+
+	private MuSigNonce(BigInteger k1, BigInteger k2) {
+		this.secretNonce = new BigInteger[] {k1, k2};
+		this.publicNonce = MuSig.encodeNonce(
+			ECKeyUtils.domain().getG().multiply(k1).normalize(),
+			ECKeyUtils.domain().getG().multiply(k2).normalize()
+		);
+	}
+
+	static MuSigNonce generate(SecureRandom random) {
+		final BigInteger n = ECKeyUtils.domain().getN();
+		return new MuSigNonce(
+			BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random),
+			BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random)
+		);
+	}
+
+	/**
+	 * Returns the public nonce, to be sent to the aggregator.
+	 */
+	public byte[] getPublicNonce() {
+		return this.publicNonce.clone();
+	}
+
+	synchronized BigInteger[] consume() {
+		if (this.secretNonce == null) {
+			throw new IllegalStateException("Nonce has already been used");
+		}
+		final BigInteger[] k = this.secretNonce;
+		this.secretNonce = null;
+		return k;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", getClass().getSimpleName(), this.secretNonce == null ? "used" : "unused");
+	}
+}
@@ -17,9 +17,12 @@
 
 package com.radixdlt.crypto;
 
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import com.google.common.hash.HashCode;
 import com.radixdlt.SecurityCritical;
 import com.radixdlt.SecurityCritical.SecurityKind;
 
@@ -33,6 +36,8 @@ class SHAHashHandler implements HashHandler {
 	private final ThreadLocal<MessageDigest> hash256DigesterInner = ThreadLocal.withInitial(() -> getDigester("SHA-256"));
 	private final ThreadLocal<MessageDigest> hash256DigesterOuter = ThreadLocal.withInitial(() -> getDigester("SHA-256"));
 	private final ThreadLocal<MessageDigest> hash512Digester = ThreadLocal.withInitial(() -> getDigester("SHA-512"));
+	// Never updated, only cloned, which is cheaper than a provider lookup for each hasher
+	private final MessageDigest hash256Prototype = getDigester("SHA-256");
 
 	SHAHashHandler() {
 		// Nothing to do here
@@ -60,6 +65,56 @@ class SHAHashHandler implements HashHandler {
 		return hash512Twice(data, offset, length);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This implementation uses two rounds of SHA-2 with 256 bits of length,
+	 * i.e. {@code SHA-256(SHA-256(data))}, in order to avoid length-extension attack
+	 */
+	@Override
+	public void hash256(byte[] data, int offset, int length, byte[] output, int outputOffset) {
+		final MessageDigest hash256DigesterOuterLocal = hash256DigesterOuter.get();
+		final MessageDigest hash256DigesterInnerLocal = hash256DigesterInner.get();
+		hash256DigesterOuterLocal.reset();
+		hash256DigesterInnerLocal.reset();
+		hash256DigesterInnerLocal.update(data, offset, length);
+		try {
+			// The first round is written to the output, as the data has already been consumed
+			int digestLength = hash256DigesterInnerLocal.digest(output, outputOffset, output.length - outputOffset);
+			hash256DigesterOuterLocal.update(output, outputOffset, digestLength);
+			hash256DigesterOuterLocal.digest(output, outputOffset, digestLength);
+		} catch (DigestException e) {
+			throw new IllegalArgumentException("Insufficient space for hash at offset " + outputOffset, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This implementation uses two rounds of SHA-2 with 256 bits of length,
+	 * i.e. {@code SHA-256(SHA-256(data))}, in order to avoid length-extension attack
+	 */
+	@Override
+	public byte[] hash256(ByteBuffer data) {
+		final MessageDigest hash256DigesterOuterLocal = hash256DigesterOuter.get();
+		final MessageDigest hash256DigesterInnerLocal = hash256DigesterInner.get();
+		hash256DigesterOuterLocal.reset();
+		hash256DigesterInnerLocal.reset();
+		hash256DigesterInnerLocal.update(data);
+		return hash256DigesterOuterLocal.digest(hash256DigesterInnerLocal.digest());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The hasher owns its digester, rather than using this thread's, as updates may be
+	 * interleaved with other hashing, or made from different threads.
+	 */
+	@Override
+	public IncrementalHasher hasher256() {
+		return new SHA256TwiceHasher(copyOf(hash256Prototype));
+	}
+
 	private byte[] hash256Twice(byte[] data, int offset, int length) {
 		final MessageDigest hash256DigesterOuterLocal = hash256DigesterOuter.get();
 		final MessageDigest hash256DigesterInnerLocal = hash256DigesterInner.get();
@@ -76,6 +131,46 @@ class SHAHashHandler implements HashHandler {
 		return hash512DigesterLocal.digest(hash512DigesterLocal.digest());
 	}
 
+	private static final class SHA256TwiceHasher implements IncrementalHasher {
+		private final MessageDigest digester;
+
+		private SHA256TwiceHasher(MessageDigest digester) {
+			this.digester = digester;
+		}
+
+		@Override
+		public IncrementalHasher update(byte data) {
+			this.digester.update(data);
+			return this;
+		}
+
+		@Override
+		public IncrementalHasher update(byte[] data, int offset, int length) {
+			this.digester.update(data, offset, length);
+			return this;
+		}
+
+		@Override
+		public IncrementalHasher update(ByteBuffer data) {
+			this.digester.update(data);
+			return this;
+		}
+
+		@Override
+		public HashCode hash() {
+			// Each call to digest also resets the digester
+			return HashCode.fromBytes(this.digester.digest(this.digester.digest()));
+		}
+	}
+
+	private static MessageDigest copyOf(MessageDigest digester) {
+		try {
+			return (MessageDigest) digester.clone();
+		} catch (CloneNotSupportedException e) {
+			return getDigester(digester.getAlgorithm());
+		}
+	}
+
 	private static MessageDigest getDigester(String algorithm) {
 		try {
 			return  MessageDigest.getInstance(algorithm);
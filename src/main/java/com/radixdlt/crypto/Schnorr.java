@@ -0,0 +1,235 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Implementation of <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>
+ * Schnorr signatures over secp256k1.
+ * <p>
+ * BIP-340 uses 32 byte "x-only" public keys, implicitly having an even Y coordinate.  Methods here
+ * accept public keys as points with either Y coordinate, and use the corresponding x-only key,
+ * so that existing compressed {@link ECPublicKey}s can be used for both signature schemes.
+ */
+@SecurityCritical({ SecurityKind.SIG_SIGN, SecurityKind.SIG_VERIFY })
+final class Schnorr {
+	static final int COMPONENT_BYTES = 32;
+	static final int SIGNATURE_BYTES = COMPONENT_BYTES * 2;
+
+	private static final SHA256Digest AUX_TAG = taggedDigest("BIP0340/aux");
+	private static final SHA256Digest NONCE_TAG = taggedDigest("BIP0340/nonce");
+	private static final SHA256Digest CHALLENGE_TAG = taggedDigest("BIP0340/challenge");
+
+	private static final int BATCH_COEFFICIENT_BYTES = 16;
+	private static final ECMultiplier BASE_MULTIPLIER = new FixedPointCombMultiplier();
+
+	private Schnorr() {
+		throw new IllegalStateException("Can't construct");
+	}
+
+	/**
+	 * Signs the specified message.
+	 *
+	 * @param message The message (usually a hash) to sign
+	 * @param privateKey The private key to sign with
+	 * @param auxRand 32 bytes of auxiliary randomness
+	 * @return The 64 byte signature
+	 */
+	static byte[] sign(byte[] message, byte[] privateKey, byte[] auxRand) {
+		final BigInteger n = ECKeyUtils.domain().getN();
+		final BigInteger dPrime = new BigInteger(1, privateKey);
+		if (dPrime.signum() == 0 || dPrime.compareTo(n) >= 0) {
+			throw new IllegalArgumentException("Private key out of range");
+		}
+		if (auxRand.length != COMPONENT_BYTES) {
+			throw new IllegalArgumentException("Auxiliary randomness must be " + COMPONENT_BYTES + " bytes: " + auxRand.length);
+		}
+
+		final ECPoint p = BASE_MULTIPLIER.multiply(ECKeyUtils.domain().getG(), dPrime).normalize();
+		final BigInteger d = p.getAffineYCoord().testBitZero() ? n.subtract(dPrime) : dPrime;
+		final byte[] px = p.getAffineXCoord().getEncoded();
+
+		final byte[] t = toBytes(d);
+		final byte[] auxHash = taggedHash(AUX_TAG, auxRand);
+		for (int i = 0; i < t.length; i++) {
+			t[i] ^= auxHash[i];
+		}
+		final BigInteger kPrime = new BigInteger(1, taggedHash(NONCE_TAG, t, px, message)).mod(n);
+		if (kPrime.signum() == 0) {
+			throw new IllegalStateException("Nonce is zero");
+		}
+
+		final ECPoint r = BASE_MULTIPLIER.multiply(ECKeyUtils.domain().getG(), kPrime).normalize();
+		final BigInteger k = r.getAffineYCoord().testBitZero() ? n.subtract(kPrime) : kPrime;
+		final byte[] rx = r.getAffineXCoord().getEncoded();
+		final BigInteger e = new BigInteger(1, taggedHash(CHALLENGE_TAG, rx, px, message)).mod(n);
+
+		final byte[] signature = new byte[SIGNATURE_BYTES];
+		System.arraycopy(rx, 0, signature, 0, COMPONENT_BYTES);
+		System.arraycopy(toBytes(k.add(e.multiply(d)).mod(n)), 0, signature, COMPONENT_BYTES, COMPONENT_BYTES);
+		return signature;
+	}
+
+	/**
+	 * Verifies the specified signature.
+	 *
+	 * @param message The message (usually a hash) that was signed
+	 * @param publicKey The public key point of the signer
+	 * @param signature The 64 byte signature
+	 * @return {@code true} if the signature is valid
+	 */
+	static boolean verify(byte[] message, ECPoint publicKey, byte[] signature) {
+		final BigInteger n = ECKeyUtils.domain().getN();
+		final BigInteger r = new BigInteger(1, signature, 0, COMPONENT_BYTES);
+		final BigInteger s = new BigInteger(1, signature, COMPONENT_BYTES, COMPONENT_BYTES);
+		if (!ECKeyUtils.domain().getCurve().isValidFieldElement(r) || s.compareTo(n) >= 0) {
+			return false;
+		}
+
+		final ECPoint p = evenY(publicKey);
+		final BigInteger e = challenge(signature, p, message);
+		// R = s * G - e * P
+		final ECPoint rPoint = ECAlgorithms.sumOfTwoMultiplies(ECKeyUtils.domain().getG(), s, p, n.subtract(e)).normalize();
+		return !rPoint.isInfinity()
+			&& !rPoint.getAffineYCoord().testBitZero()
+			&& rPoint.getAffineXCoord().toBigInteger().equals(r);
+	}
+
+	/**
+	 * Verifies a batch of signatures at once, using the randomised batch verification
+	 * algorithm from BIP-340.  This is significantly cheaper than verifying each signature
+	 * individually, but only indicates whether all signatures are valid.
+	 *
+	 * @param messages The messages that were signed
+	 * @param publicKeys The public key points of the signers
+	 * @param signatures The 64 byte signatures
+	 * @param random Source of randomness for the batch coefficients
+	 * @return {@code true} if all signatures are valid
+	 */
+	static boolean verifyBatch(List<byte[]> messages, List<ECPoint> publicKeys, List<byte[]> signatures, SecureRandom random) {
+		final int size = signatures.size();
+		if (messages.size() != size || publicKeys.size() != size) {
+			throw new IllegalArgumentException(String.format(
+				"Sizes of messages (%s), public keys (%s) and signatures (%s) must match",
+				messages.size(), publicKeys.size(), size
+			));
+		}
+		if (size == 1) {
+			return verify(messages.get(0), publicKeys.get(0), signatures.get(0));
+		}
+
+		final BigInteger n = ECKeyUtils.domain().getN();
+		final ECPoint[] points = new ECPoint[size * 2 + 1];
+		final BigInteger[] scalars = new BigInteger[size * 2 + 1];
+		// Draw randomness for all coefficients at once, as per-call overhead dominates for small requests
+		final byte[] coefficients = new byte[BATCH_COEFFICIENT_BYTES * size];
+		random.nextBytes(coefficients);
+		BigInteger sumS = BigInteger.ZERO;
+		for (int i = 0; i < size; i++) {
+			final byte[] signature = signatures.get(i);
+			final BigInteger s = new BigInteger(1, signature, COMPONENT_BYTES, COMPONENT_BYTES);
+			if (s.compareTo(n) >= 0) {
+				return false;
+			}
+			final ECPoint rPoint = liftX(signature);
+			if (rPoint == null) {
+				return false;
+			}
+			final ECPoint p = evenY(publicKeys.get(i));
+			final BigInteger e = challenge(signature, p, messages.get(i));
+			// First coefficient is fixed at 1, as in BIP-340.  The remaining coefficients are random and
+			// non-zero, with 128 bits bounding the probability of accepting an invalid batch at 2^-128.
+			final BigInteger a = i == 0
+				? BigInteger.ONE
+				: new BigInteger(1, coefficients, i * BATCH_COEFFICIENT_BYTES, BATCH_COEFFICIENT_BYTES).setBit(0);
+
+			sumS = sumS.add(a.multiply(s));
+			points[i * 2] = rPoint;
+			scalars[i * 2] = a;
+			points[i * 2 + 1] = p;
+			scalars[i * 2 + 1] = a.multiply(e).mod(n);
+		}
+		// sum(a_i * R_i) + sum(a_i * e_i * P_i) - sum(a_i * s_i) * G == infinity
+		points[size * 2] = ECKeyUtils.domain().getG();
+		scalars[size * 2] = n.subtract(sumS.mod(n));
+		return ECAlgorithms.sumOfMultiplies(points, scalars).isInfinity();
+	}
+
+	static BigInteger challenge(byte[] signature, ECPoint evenPublicKey, byte[] message) {
+		final byte[] rx = new byte[COMPONENT_BYTES];
+		System.arraycopy(signature, 0, rx, 0, COMPONENT_BYTES);
+		final byte[] px = evenPublicKey.getAffineXCoord().getEncoded();
+		return new BigInteger(1, taggedHash(CHALLENGE_TAG, rx, px, message)).mod(ECKeyUtils.domain().getN());
+	}
+
+	static ECPoint evenY(ECPoint point) {
+		final ECPoint normalized = point.normalize();
+		return normalized.getAffineYCoord().testBitZero() ? normalized.negate() : normalized;
+	}
+
+	private static ECPoint liftX(byte[] signature) {
+		final byte[] encoded = new byte[COMPONENT_BYTES + 1];
+		encoded[0] = 0x02;
+		System.arraycopy(signature, 0, encoded, 1, COMPONENT_BYTES);
+		try {
+			return ECKeyUtils.domain().getCurve().decodePoint(encoded);
+		} catch (IllegalArgumentException e) {
+			// x not on the curve, or not a field element
+			return null;
+		}
+	}
+
+	static byte[] toBytes(BigInteger value) {
+		return BigIntegers.asUnsignedByteArray(COMPONENT_BYTES, value);
+	}
+
+	static SHA256Digest taggedDigest(String tag) {
+		final SHA256Digest digest = new SHA256Digest();
+		final byte[] tagBytes = tag.getBytes(StandardCharsets.UTF_8);
+		final byte[] tagHash = new byte[digest.getDigestSize()];
+		digest.update(tagBytes, 0, tagBytes.length);
+		digest.doFinal(tagHash, 0);
+		digest.update(tagHash, 0, tagHash.length);
+		digest.update(tagHash, 0, tagHash.length);
+		return digest;
+	}
+
+	static byte[] taggedHash(SHA256Digest tag, byte[]... parts) {
+		// Copy of the digest state after absorbing the tag prefix
+		final SHA256Digest digest = new SHA256Digest(tag);
+		for (byte[] part : parts) {
+			digest.update(part, 0, part.length);
+		}
+		final byte[] hash = new byte[digest.getDigestSize()];
+		digest.doFinal(hash, 0);
+		return hash;
+	}
+}
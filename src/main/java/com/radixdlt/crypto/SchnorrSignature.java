@@ -0,0 +1,153 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.SerializerConstants;
+import com.radixdlt.serialization.SerializerDummy;
+import com.radixdlt.serialization.SerializerId2;
+import com.radixdlt.utils.Bytes;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>
+ * Schnorr signature over secp256k1, represented as the 32 byte X coordinate of the
+ * nonce point {@code R} followed by the 32 byte scalar {@code s}.
+ */
+@SerializerId2("crypto.schnorr_signature")
+public final class SchnorrSignature implements Signature {
+	public static final int BYTES = Schnorr.SIGNATURE_BYTES;
+
+	// Placeholder for the serializer ID
+	@JsonProperty(SerializerConstants.SERIALIZER_NAME)
+	@DsonOutput(Output.ALL)
+	private SerializerDummy serializer = SerializerDummy.DUMMY;
+
+	@JsonProperty("version")
+	@DsonOutput(Output.ALL)
+	private short version = 100;
+
+	/* The r || s encoding of the signature. */
+	private byte[] signature;
+
+	// Serialization
+	SchnorrSignature() {
+		this.signature = new byte[BYTES];
+	}
+
+	private SchnorrSignature(byte[] signature) {
+		this.signature = signature;
+	}
+
+	/**
+	 * Create a signature from its 64 byte encoding.
+	 *
+	 * @param bytes The bytes (must be of length SchnorrSignature.BYTES)
+	 * @return A signature with those bytes
+	 */
+	public static SchnorrSignature from(byte[] bytes) {
+		Objects.requireNonNull(bytes, "bytes is required");
+		if (bytes.length != BYTES) {
+			throw new IllegalArgumentException(String.format("Bytes length must be %d but is %d", BYTES, bytes.length));
+		}
+		return new SchnorrSignature(bytes.clone());
+	}
+
+	/**
+	 * Wraps the specified bytes without copying.
+	 */
+	static SchnorrSignature wrap(byte[] bytes) {
+		return new SchnorrSignature(bytes);
+	}
+
+	/**
+	 * Returns a copy of the 64 byte encoding of this signature.
+	 */
+	public byte[] toByteArray() {
+		return this.signature.clone();
+	}
+
+	/**
+	 * Returns the underlying bytes of this signature.
+	 * Note that this is NOT a copy and is the actual underlying byte array.
+	 */
+	byte[] getBytes() {
+		return this.signature;
+	}
+
+	@JsonProperty("r")
+	@DsonOutput(Output.ALL)
+	private byte[] getJsonR() {
+		return Arrays.copyOfRange(this.signature, 0, Schnorr.COMPONENT_BYTES);
+	}
+
+	@JsonProperty("s")
+	@DsonOutput(Output.ALL)
+	private byte[] getJsonS() {
+		return Arrays.copyOfRange(this.signature, Schnorr.COMPONENT_BYTES, BYTES);
+	}
+
+	@JsonProperty("r")
+	private void setJsonR(byte[] r) {
+		setComponent(r, 0);
+	}
+
+	@JsonProperty("s")
+	private void setJsonS(byte[] s) {
+		setComponent(s, Schnorr.COMPONENT_BYTES);
+	}
+
+	private void setComponent(byte[] component, int offset) {
+		if (component.length != Schnorr.COMPONENT_BYTES) {
+			throw new IllegalArgumentException(String.format(
+				"Signature component length must be %d but is %d", Schnorr.COMPONENT_BYTES, component.length
+			));
+		}
+		System.arraycopy(component, 0, this.signature, offset, Schnorr.COMPONENT_BYTES);
+	}
+
+	@Override
+	public SignatureScheme signatureScheme() {
+		return SignatureScheme.SCHNORR;
+	}
+
+	@Override
+	public String toString() {
+		return Bytes.toHexString(this.signature);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof SchnorrSignature) {
+			return Arrays.equals(this.signature, ((SchnorrSignature) o).signature);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.signature);
+	}
+}
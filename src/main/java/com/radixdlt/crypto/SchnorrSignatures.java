@@ -0,0 +1,251 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.primitives.UnsignedBytes;
+import com.radixdlt.crypto.exception.PublicKeyException;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.SerializerConstants;
+import com.radixdlt.serialization.SerializerDummy;
+import com.radixdlt.serialization.SerializerId2;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A collection of <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>
+ * Schnorr signatures.
+ * <p>
+ * Signatures are verified together using batch verification, falling back to verifying
+ * signatures individually only if the batch contains an invalid signature.
+ * <p>
+ * BIP-340 signatures are verified against the X coordinate of a key alone, so a signature that
+ * is valid for a key is also valid for its negation.  To avoid counting a single signer twice,
+ * a collection may not contain two keys with the same X coordinate.
+ */
+@Immutable
+@SerializerId2("crypto.schnorr_signatures")
+public final class SchnorrSignatures implements Signatures {
+	// Placeholder for the serializer ID
+	@JsonProperty(SerializerConstants.SERIALIZER_NAME)
+	@DsonOutput(DsonOutput.Output.ALL)
+	private SerializerDummy serializer = SerializerDummy.DUMMY;
+
+	@JsonProperty("version")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private short version = 100;
+
+	private ImmutableMap<ECPublicKey, SchnorrSignature> keyToSignature;
+
+	public SchnorrSignatures() {
+		this.keyToSignature = ImmutableMap.of();
+	}
+
+	public SchnorrSignatures(ECPublicKey publicKey, SchnorrSignature signature) {
+		this.keyToSignature = ImmutableMap.of(publicKey, signature);
+	}
+
+	/**
+	 * Returns a new instance containing {@code keyToSignature}.
+	 * @param keyToSignature The map of {@link SchnorrSignature}s and their corresponding {@link ECPublicKey}
+	 * @throws IllegalArgumentException if two of the keys have the same X coordinate
+	 */
+	public SchnorrSignatures(ImmutableMap<ECPublicKey, SchnorrSignature> keyToSignature) {
+		this.keyToSignature = checkDistinctXCoordinates(keyToSignature);
+	}
+
+	private static ImmutableMap<ECPublicKey, SchnorrSignature> checkDistinctXCoordinates(
+		ImmutableMap<ECPublicKey, SchnorrSignature> keyToSignature
+	) {
+		final Set<HashCode> xCoordinates = new HashSet<>();
+		for (ECPublicKey key : keyToSignature.keySet()) {
+			if (!xCoordinates.add(HashCode.fromBytes(key.getPublicPoint().getAffineXCoord().getEncoded()))) {
+				throw new IllegalArgumentException("Multiple keys with the same X coordinate as " + key);
+			}
+		}
+		return keyToSignature;
+	}
+
+	@Override
+	public SignatureScheme signatureScheme() {
+		return SignatureScheme.SCHNORR;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.keyToSignature.isEmpty();
+	}
+
+	@Override
+	public int count() {
+		return this.keyToSignature.size();
+	}
+
+	@Override
+	public Signatures concatenate(ECPublicKey publicKey, Signature signature) {
+		if (!(signature instanceof SchnorrSignature)) {
+			throw new IllegalArgumentException(
+					String.format("Expected 'signature' to be of type '%s' but got '%s'",
+							SchnorrSignature.class.getName(), signature.getClass().getName()
+					)
+			);
+		}
+		ImmutableMap.Builder<ECPublicKey, SchnorrSignature> builder = ImmutableMap.builder();
+		builder.putAll(this.keyToSignature);
+		builder.put(publicKey, (SchnorrSignature) signature);
+		return new SchnorrSignatures(builder.build());
+	}
+
+	@Override
+	public List<ECPublicKey> signedMessage(HashCode message) {
+		final ImmutableList<ECPublicKey> publicKeys = this.keyToSignature.keySet().asList();
+		if (verifyBatch(message, publicKeys)) {
+			return publicKeys;
+		}
+		return this.keyToSignature.entrySet().stream()
+				.filter(e -> e.getKey().verify(message, e.getValue()))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, int threshold) {
+		if (count() < threshold) {
+			return false;
+		}
+		return verifyBatch(message, this.keyToSignature.keySet().asList()) || Signatures.super.isSignedByAtLeast(message, threshold);
+	}
+
+	@Override
+	public boolean isSignedByAtLeast(HashCode message, Set<ECPublicKey> signers, int threshold) {
+		final List<ECPublicKey> publicKeys = this.keyToSignature.keySet().stream()
+			.filter(signers::contains)
+			.collect(Collectors.toList());
+		if (publicKeys.size() < threshold) {
+			return false;
+		}
+		if (verifyBatch(message, publicKeys)) {
+			return true;
+		}
+		return publicKeys.stream()
+			.filter(key -> key.verify(message, this.keyToSignature.get(key)))
+			.count() >= threshold;
+	}
+
+	private boolean verifyBatch(HashCode message, List<ECPublicKey> publicKeys) {
+		if (publicKeys.isEmpty()) {
+			return true;
+		}
+		return Schnorr.verifyBatch(
+			Collections.nCopies(publicKeys.size(), message.asBytes()),
+			publicKeys.stream().map(ECPublicKey::getPublicPoint).collect(Collectors.toList()),
+			publicKeys.stream().map(key -> this.keyToSignature.get(key).getBytes()).collect(Collectors.toList()),
+			ECKeyUtils.secureRandom()
+		);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", getClass().getSimpleName(), this.keyToSignature);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SchnorrSignatures)) {
+			return false;
+		}
+		SchnorrSignatures that = (SchnorrSignatures) o;
+		return Objects.equals(keyToSignature, that.keyToSignature);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(keyToSignature);
+	}
+
+	// Keys as raw bytes and signatures in parallel arrays, sorted by key bytes
+
+	@JsonProperty("keys")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private List<byte[]> getSerializerKeys() {
+		return sortedKeys().stream()
+			.map(ECPublicKey::bytes)
+			.collect(Collectors.toList());
+	}
+
+	@JsonProperty("values")
+	@DsonOutput(DsonOutput.Output.ALL)
+	private List<SchnorrSignature> getSerializerValues() {
+		return sortedKeys().stream()
+			.map(this.keyToSignature::get)
+			.collect(Collectors.toList());
+	}
+
+	// Properties may be deserialized in any order, so keys and values are decoded once both have been read
+	@JsonCreator
+	private static SchnorrSignatures fromSerializer(
+		@JsonProperty("keys") List<byte[]> keys,
+		@JsonProperty("values") List<SchnorrSignature> values
+	) {
+		if (keys == null && values == null) {
+			return new SchnorrSignatures();
+		}
+		if (keys == null || values == null) {
+			throw new IllegalStateException(String.format(
+				"Both keys and signatures are required, but only %s present", keys == null ? "signatures are" : "keys are"
+			));
+		}
+		if (keys.size() != values.size()) {
+			throw new IllegalStateException(String.format(
+				"Number of keys (%s) and signatures (%s) do not match", keys.size(), values.size()
+			));
+		}
+		ImmutableMap.Builder<ECPublicKey, SchnorrSignature> builder = ImmutableMap.builder();
+		for (int i = 0; i < keys.size(); i++) {
+			builder.put(decodePublicKey(keys.get(i)), values.get(i));
+		}
+		return new SchnorrSignatures(builder.build());
+	}
+
+	private List<ECPublicKey> sortedKeys() {
+		return this.keyToSignature.keySet().stream()
+			.sorted(Comparator.comparing(ECPublicKey::bytes, UnsignedBytes.lexicographicalComparator()))
+			.collect(Collectors.toList());
+	}
+
+	private static ECPublicKey decodePublicKey(byte[] bytes) {
+		try {
+			return ECPublicKey.fromBytes(bytes);
+		} catch (PublicKeyException e) {
+			throw new IllegalStateException("Error decoding public key", e);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.util.Objects;
+
+/**
+ * Produces <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>
+ * Schnorr signatures using the private key of an {@link ECKeyPair}.
+ */
+@SecurityCritical({ SecurityKind.SIG_SIGN })
+public final class SchnorrSigner implements Signing<SchnorrSignature> {
+	private final ECKeyPair keyPair;
+
+	private SchnorrSigner(ECKeyPair keyPair) {
+		this.keyPair = keyPair;
+	}
+
+	/**
+	 * Creates a Schnorr signer for the specified key pair.
+	 *
+	 * @param keyPair The key pair to sign with
+	 * @return A Schnorr signer for {@code keyPair}
+	 */
+	public static SchnorrSigner create(ECKeyPair keyPair) {
+		return new SchnorrSigner(Objects.requireNonNull(keyPair));
+	}
+
+	/**
+	 * Returns the public key corresponding to the key used for signing.
+	 *
+	 * @return the public key of the signing key pair
+	 */
+	public ECPublicKey getPublicKey() {
+		return this.keyPair.getPublicKey();
+	}
+
+	/**
+	 * Signs the specified hash using fresh auxiliary randomness, as recommended by BIP-340.
+	 */
+	@Override
+	public SchnorrSignature sign(byte[] hash) {
+		final byte[] auxRand = new byte[Schnorr.COMPONENT_BYTES];
+		ECKeyUtils.secureRandom().nextBytes(auxRand);
+		return sign(hash, auxRand);
+	}
+
+	/**
+	 * Signs the specified hash using the specified auxiliary randomness.  Signatures are
+	 * deterministic for a given {@code auxRand}, which may be all zeros.
+	 *
+	 * @param hash The hash to sign
+	 * @param auxRand 32 bytes of auxiliary randomness
+	 * @return A Schnorr signature
+	 */
+	public SchnorrSignature sign(byte[] hash, byte[] auxRand) {
+		return SchnorrSignature.wrap(Schnorr.sign(hash, this.keyPair.getPrivateKey(), auxRand));
+	}
+
+	@Override
+	public boolean canProduceSignatureForScheme(SignatureScheme signatureScheme) {
+		return SignatureScheme.SCHNORR.equals(signatureScheme);
+	}
+
+	@Override
+	public ECPoint multiply(ECPoint point) {
+		return this.keyPair.multiply(point);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", getClass().getSimpleName(), getPublicKey().toBase64());
+	}
+}
@@ -23,7 +23,13 @@ public enum SignatureScheme {
      *  Elliptic Curve Digital Signature Algorithm, or ECDSA for short. A good introduction is to be found
      *  <a href="https://en.wikipedia.org/wiki/Elliptic_Curve_Digital_Signature_Algorithm">here on wikipedia</a>.
      */
-    ECDSA;
+    ECDSA,
+
+    /**
+     *  Schnorr signatures over secp256k1, as specified by
+     *  <a href="https://github.com/bitcoin/bips/blob/master/bip-0340.mediawiki">BIP-340</a>.
+     */
+    SCHNORR;
 
     @Override
     public String toString() {
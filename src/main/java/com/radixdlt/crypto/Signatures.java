@@ -21,6 +21,7 @@ package com.radixdlt.crypto;
 import com.google.common.hash.HashCode;
 
 import java.util.List;
+import java.util.Set;
 
 public interface Signatures {
 
@@ -40,6 +41,44 @@ public interface Signatures {
      */
     List<ECPublicKey> signedMessage(HashCode message);
 
+    /**
+     * Checks whether at least {@code threshold} of the signatories in this collection
+     * have signed the message.  Implementations may stop verifying as soon as the
+     * answer is known.
+     *
+     * @param message The hashed data to check against (the data that has been signed).
+     * @param threshold The minimum number of valid signatures required.
+     * @return {@code true} if at least {@code threshold} signatures are valid for the provided hash.
+     */
+    default boolean isSignedByAtLeast(HashCode message, int threshold) {
+        return signedMessage(message).size() >= threshold;
+    }
+
+    /**
+     * Checks whether at least {@code threshold} of the specified {@code signers} have
+     * signed the message.  Signatures in this collection from keys not in {@code signers}
+     * are not counted.  Implementations may stop verifying as soon as the answer is known.
+     *
+     * @param message The hashed data to check against (the data that has been signed).
+     * @param signers The keys whose signatures should be counted.
+     * @param threshold The minimum number of valid signatures required.
+     * @return {@code true} if at least {@code threshold} of {@code signers} have a valid signature for the provided hash.
+     */
+    default boolean isSignedByAtLeast(HashCode message, Set<ECPublicKey> signers, int threshold) {
+        return signedMessage(message).stream().filter(signers::contains).count() >= threshold;
+    }
+
+    /**
+     * Checks whether every signature in this collection is valid for the message.
+     * Implementations may stop verifying at the first invalid signature.
+     *
+     * @param message The hashed data to check against (the data that has been signed).
+     * @return {@code true} if all signatures are valid for the provided hash.
+     */
+    default boolean isSignedByAll(HashCode message) {
+        return isSignedByAtLeast(message, count());
+    }
+
     /**
      * Returns a new instance of {@link Signatures}, concatenated with the {@code signature},
      * produced by the signing key corresponding to the {@code publicKey}.
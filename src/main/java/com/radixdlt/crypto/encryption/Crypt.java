@@ -31,48 +31,84 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
 import com.radixdlt.SecurityCritical;
 import com.radixdlt.SecurityCritical.SecurityKind;
 
-import java.util.Arrays;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 @SecurityCritical({ SecurityKind.PK_DECRYPT, SecurityKind.PK_ENCRYPT })
 public final class Crypt {
+	// AES block size, and so the maximum amount of PKCS7 padding
+	static final int BLOCK_BYTES = 16;
+	// Size of the chunks in which data not backed by an array is copied through scratch buffers
+	static final int CHUNK_BYTES = 8192;
+
+	// Ciphers are initialised with a new key and IV for each use, so can be re-used within a thread
+	private static final ThreadLocal<BufferedBlockCipher> blockCiphers = ThreadLocal.withInitial(Crypt::newBlockCipher);
+	private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[2 * CHUNK_BYTES + BLOCK_BYTES]);
 
 	private Crypt() {
 		throw new IllegalStateException("Can't construct");
 	}
 
-	static byte[] encrypt(byte[] iv, byte[] data, byte[] keyE) throws CryptOperationException {
-		return crypt(CryptOperation.ENCRYPT, iv, data, keyE);
-	}
-
-	static byte[] decrypt(byte[] iv, byte[] data, byte[] keyE) throws CryptOperationException {
-		return crypt(CryptOperation.DECRYPT, iv, data, keyE);
+	/**
+	 * Returns the size of {@code length} bytes once encrypted with PKCS7 padding.
+	 */
+	static int paddedLength(int length) {
+		return (length / BLOCK_BYTES + 1) * BLOCK_BYTES;
 	}
 
-	private static byte[] crypt(CryptOperation operation, byte[] iv, byte[] data, byte[] keyE) throws CryptOperationException {
+	/**
+	 * Encrypts or decrypts all remaining bytes of {@code input}, writing the result to {@code output}.
+	 * Uses this thread's cipher, so must not be called while another use on the same thread is in progress.
+	 *
+	 * @throws BufferOverflowException if {@code output} may not have enough space remaining, in which
+	 * 		case neither buffer is modified
+	 */
+	static void crypt(CryptOperation operation, byte[] iv, KeyParameter keyE, ByteBuffer input, ByteBuffer output)
+		throws CryptOperationException {
+		int length = input.remaining();
+		if (output.remaining() < (operation.isEncryption() ? paddedLength(length) : length)) {
+			throw new BufferOverflowException();
+		}
+		BufferedBlockCipher cipher = init(blockCiphers.get(), operation.isEncryption(), iv, keyE);
 		try {
-			BufferedBlockCipher cipher = makeBlockCipher(operation.isEncryption(), iv, keyE);
-
-			byte[] buffer = new byte[cipher.getOutputSize(data.length)];
-
-			int length = cipher.processBytes(data, 0, data.length, buffer, 0);
-			length += cipher.doFinal(buffer, length);
-
-			if (length < buffer.length) {
-				return Arrays.copyOfRange(buffer, 0, length);
+			if (input.hasArray() && output.hasArray()) {
+				byte[] out = output.array();
+				int outOffset = output.arrayOffset() + output.position();
+				int written = cipher.processBytes(input.array(), input.arrayOffset() + input.position(), length, out, outOffset);
+				written += cipher.doFinal(out, outOffset + written);
+				input.position(input.limit());
+				output.position(output.position() + written);
+			} else {
+				// Copy through per-thread scratch space, input in the first half and output in the second
+				byte[] buffer = scratch.get();
+				while (input.hasRemaining()) {
+					int chunk = Math.min(input.remaining(), CHUNK_BYTES);
+					input.get(buffer, 0, chunk);
+					output.put(buffer, CHUNK_BYTES, cipher.processBytes(buffer, 0, chunk, buffer, CHUNK_BYTES));
+				}
+				output.put(buffer, CHUNK_BYTES, cipher.doFinal(buffer, CHUNK_BYTES));
 			}
-
-			return buffer;
 		} catch (InvalidCipherTextException e) {
 			throw new CryptOperationException(operation, e);
 		}
 	}
 
-	private static BufferedBlockCipher makeBlockCipher(boolean encrypt, byte[] iv, byte[] keyE) {
-		BufferedBlockCipher cipher = new PaddedBufferedBlockCipher(
+	/**
+	 * Returns a new cipher, for uses that may span calls to other code, such as streaming.
+	 */
+	static BufferedBlockCipher newBlockCipher(boolean encrypt, byte[] iv, KeyParameter keyE) {
+		return init(newBlockCipher(), encrypt, iv, keyE);
+	}
+
+	private static BufferedBlockCipher newBlockCipher() {
+		return new PaddedBufferedBlockCipher(
 				new CBCBlockCipher(new AESEngine()),
 				new PKCS7Padding()
 		);
-		CipherParameters params = new ParametersWithIV(new KeyParameter(keyE), iv);
+	}
+
+	private static BufferedBlockCipher init(BufferedBlockCipher cipher, boolean encrypt, byte[] iv, KeyParameter keyE) {
+		CipherParameters params = new ParametersWithIV(keyE, iv);
 		cipher.init(encrypt, params);
 		return cipher;
 	}
@@ -26,28 +26,76 @@ import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.crypto.exception.MacMismatchException;
 import com.radixdlt.crypto.exception.ECIESException;
+import org.bouncycastle.crypto.BufferedBlockCipher;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.math.ec.ECPoint;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.security.GeneralSecurityException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * Encrypt and Decrypt data using ECIES
  * (Elliptic Curve <a href="https://en.wikipedia.org/wiki/Integrated_Encryption_Scheme">Integrated Encryption Scheme</a>, subset of DHIES):
+ * <p>
+ * By default data is encrypted with AES-256-CBC and authenticated with a separate HMAC-SHA256.
+ * An AEAD {@link ECIESMode} can be selected per call, and {@link #decrypt(byte[], ECMultiplicationScalar)}
+ * accepts data in any mode.
  */
 @SecurityCritical({ SecurityKind.PK_DECRYPT, SecurityKind.PK_ENCRYPT })
 public final class ECIES {
 
+	/**
+	 * Name of the system property holding the capacity of the {@link EphemeralKeyPool}
+	 * used by {@link #encrypt(byte[], ECPublicKey)}.  Ephemeral key pairs are generated
+	 * for each encryption if this property is not set, or is not a positive number.
+	 */
+	public static final String EPHEMERAL_KEY_POOL_SIZE_PROPERTY = "com.radixdlt.crypto.ecies.ephemeral_key_pool_size";
+
+	// Size of the chunks in which streamed data is read, processed and written
+	private static final int STREAM_CHUNK_BYTES = 8192;
+	private static final int IV_BYTES = 16;
+	private static final int MAC_BYTES = 32;
+	// Prefix of data encrypted with an AEAD mode, which is followed by the mode's version byte
+	static final byte[] AEAD_MAGIC = {(byte) 0xEC, 'I', 'E', 'S'};
+	private static final int AEAD_NONCE_BYTES = 12;
+	static final int AEAD_TAG_BITS = 128;
+
+	// MACs are initialised with a new key for each message, so can be re-used within a thread
+	private static final ThreadLocal<HMac> macs = ThreadLocal.withInitial(() -> new HMac(new SHA256Digest()));
+	private static final ThreadLocal<byte[]> macScratch = ThreadLocal.withInitial(() -> new byte[STREAM_CHUNK_BYTES]);
+
 	private static SecureRandom secureRandom;
 
+	// Created on first use, so that no thread is started unless encryption is used
+	private static final class EphemeralKeys {
+		private static final EphemeralKeyPool POOL = createPool();
+
+		private static EphemeralKeyPool createPool() {
+			int poolSize = Integer.getInteger(EPHEMERAL_KEY_POOL_SIZE_PROPERTY, 0);
+			return poolSize > 0 ? EphemeralKeyPool.start(poolSize) : null;
+		}
+
+		private static ECKeyPair next() {
+			return POOL == null ? ECKeyPair.generateNew() : POOL.take();
+		}
+	}
+
 	static {
 		install();
 	}
@@ -60,18 +108,67 @@ public final class ECIES {
 		throw new IllegalStateException("Can't construct");
 	}
 
+	/**
+	 * Decrypts data produced by {@link #encrypt(byte[], ECPublicKey, ECIESMode)} in any mode.
+	 *
+	 * @param data The encrypted data
+	 * @param multiplicationScalar The private key to decrypt with
+	 * @return The decrypted data
+	 * @throws ECIESException if the data is malformed or fails authentication
+	 */
 	public static <M extends ECMultiplicationScalar> byte[] decrypt(byte[] data, M multiplicationScalar) throws ECIESException {
+		ECIESMode mode = aeadMode(data);
+		if (mode == null) {
+			return decryptLegacy(data, multiplicationScalar);
+		}
 		try {
-			DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(data));
+			return decrypt(data, multiplicationScalar, mode);
+		} catch (ECIESException e) {
+			// Legacy data starts with a random IV, so can, very rarely, look like AEAD data
+			try {
+				return decryptLegacy(data, multiplicationScalar);
+			} catch (ECIESException legacyException) {
+				e.addSuppressed(legacyException);
+				throw e;
+			}
+		}
+	}
+
+	private static <M extends ECMultiplicationScalar> byte[] decryptLegacy(byte[] data, M multiplicationScalar) throws ECIESException {
+		// Plaintext is always shorter than the encrypted data
+		ByteBuffer output = ByteBuffer.allocate(data.length);
+		decrypt(ByteBuffer.wrap(data), multiplicationScalar, output);
+		return Arrays.copyOf(output.array(), output.position());
+	}
+
+	/**
+	 * Decrypts the data in the format produced by {@link #encrypt(byte[], ECPublicKey)} found at the current
+	 * position of {@code ciphertext}, writing the decrypted data to {@code plaintext}.
+	 * <p>
+	 * Buffers may be heap or direct, and are read and written in place without intermediate copies of the data.
+	 * On success, the position of {@code ciphertext} is advanced past the encrypted data and the position of
+	 * {@code plaintext} past the decrypted data.  Data is authenticated before any is written, and
+	 * {@code ciphertext} is not modified on failure.
+	 *
+	 * @param ciphertext The buffer to read the encrypted data from
+	 * @param multiplicationScalar The private key to decrypt with
+	 * @param plaintext The buffer to write the decrypted data to, which must have at least as many bytes
+	 * 		remaining as the encrypted data
+	 * @throws ECIESException if the data is malformed, fails authentication, or {@code plaintext} is too small
+	 */
+	public static <M extends ECMultiplicationScalar> void decrypt(ByteBuffer ciphertext, M multiplicationScalar, ByteBuffer plaintext)
+		throws ECIESException {
+		try {
+			ByteBuffer input = ciphertext.duplicate();
 
 			// 1. Read the `IV` (as in `initialization vector`)
-			byte[] iv = new byte[16];
-			inputStream.readFully(iv);
+			byte[] iv = new byte[IV_BYTES];
+			input.get(iv);
 
 			// 2. Read the ephemeral public key
-			int publicKeySize = inputStream.readUnsignedByte();
+			int publicKeySize = input.get() & 0xFF;
 			byte[] publicKeyRaw = new byte[publicKeySize];
-			inputStream.readFully(publicKeyRaw);
+			input.get(publicKeyRaw);
 			ECPublicKey ephemeralPublicKey = ECPublicKey.fromBytes(publicKeyRaw);
 
 			// 3. Do an EC point multiply with this.getPrivateKey() and ephemeral public key. This gives you a point M.
@@ -81,39 +178,173 @@ public final class ECIES {
 			byte[] h = hash(m.getXCoord().getEncoded());
 
 			// 5. The first 32 bytes of H are called key_e and the last 32 bytes are called key_m.
-			byte[] keyE = Arrays.copyOfRange(h, 0, 32);
+			KeyParameter keyE = new KeyParameter(h, 0, 32);
 			byte[] keyM = Arrays.copyOfRange(h, 32, 64);
 
 			// 6. Read encrypted data
-			byte[] encrypted = new byte[inputStream.readInt()];
-			inputStream.readFully(encrypted);
+			int encryptedLength = input.getInt();
+			if (encryptedLength < 0 || encryptedLength > input.remaining()) {
+				throw new BufferUnderflowException();
+			}
+			ByteBuffer encrypted = input.slice();
+			encrypted.limit(encryptedLength);
+			input.position(input.position() + encryptedLength);
 
 			// 6. Read MAC
-			byte[] mac = new byte[32];
-			inputStream.readFully(mac);
+			byte[] mac = new byte[MAC_BYTES];
+			input.get(mac);
 
 			// 7. Compare MAC with MAC'. If not equal, decryption will fail.
-			byte[] pkMac = calculateMAC(keyM, iv, ephemeralPublicKey, encrypted);
+			byte[] pkMac = calculateMAC(keyM, iv, publicKeyRaw, encrypted.duplicate());
 			if (!Arrays.equals(mac, pkMac)) {
 				throw new MacMismatchException(pkMac, mac);
 			}
 
 			// 8. Decrypt the cipher text with AES-256-CBC, using IV as initialization vector, key_e as decryption key
 			//    and the cipher text as payload. The output is the padded input text.
-			return Crypt.decrypt(iv, encrypted, keyE);
+			Crypt.crypt(CryptOperation.DECRYPT, iv, keyE, encrypted, plaintext);
+			ciphertext.position(input.position());
 		} catch (Exception e) {
 			throw new ECIESException("Failed to decrypt", e);
 		}
 	}
 
 	public static byte[] encrypt(byte[] data, ECPublicKey publicKey) throws ECIESException {
-		byte[] iv = new byte[16];
+		byte[] iv = new byte[IV_BYTES];
 		secureRandom.nextBytes(iv);
-		return encrypt(data, publicKey.getPublicPoint(), ECKeyPair.generateNew(), iv);
+		return encrypt(data, publicKey.getPublicPoint(), EphemeralKeys.next(), iv);
+	}
+
+	/**
+	 * Encrypts the remaining bytes of {@code plaintext} to {@code publicKey}, writing the result to
+	 * {@code ciphertext} in the same format as {@link #encrypt(byte[], ECPublicKey)}.
+	 * <p>
+	 * Buffers may be heap or direct, and are read and written in place without intermediate copies of the data.
+	 * On success, the positions of both buffers are advanced past the data read and written.
+	 *
+	 * @param plaintext The buffer to read the data to encrypt from
+	 * @param publicKey The public key to encrypt to
+	 * @param ciphertext The buffer to write the encrypted data to, which must have at least
+	 * 		{@link #encryptedSize(int)} bytes remaining
+	 * @throws ECIESException if the data could not be encrypted, or {@code ciphertext} is too small
+	 */
+	public static void encrypt(ByteBuffer plaintext, ECPublicKey publicKey, ByteBuffer ciphertext) throws ECIESException {
+		byte[] iv = new byte[IV_BYTES];
+		secureRandom.nextBytes(iv);
+		encrypt(plaintext, publicKey.getPublicPoint(), EphemeralKeys.next(), iv, ciphertext);
+	}
+
+	/**
+	 * Returns the size of the data produced by encrypting {@code length} bytes with
+	 * {@link #encrypt(byte[], ECPublicKey)} or {@link #encrypt(ByteBuffer, ECPublicKey, ByteBuffer)}.
+	 *
+	 * @param length The number of bytes to encrypt
+	 * @return The size of the encrypted data
+	 */
+	public static int encryptedSize(int length) {
+		// Ephemeral keys are compressed, so a prefix byte and the X coordinate
+		return encryptedSize(length, ECPublicKey.BYTES + 1);
+	}
+
+	private static int encryptedSize(int length, int publicKeySize) {
+		return IV_BYTES + 1 + publicKeySize + Integer.BYTES + Crypt.paddedLength(length) + MAC_BYTES;
+	}
+
+	/**
+	 * Returns statistics for the ephemeral key pool, if enabled with the
+	 * {@value #EPHEMERAL_KEY_POOL_SIZE_PROPERTY} system property.
+	 *
+	 * @return Pool statistics, or {@link Optional#empty()} if ephemeral keys are not pooled
+	 */
+	public static Optional<EphemeralKeyPool.Stats> ephemeralKeyPoolStats() {
+		return Optional.ofNullable(EphemeralKeys.POOL).map(EphemeralKeyPool::stats);
+	}
+
+	/**
+	 * Encrypts data to {@code publicKey} using the specified mode.
+	 *
+	 * @param data The data to encrypt
+	 * @param publicKey The public key to encrypt to
+	 * @param mode The symmetric encryption and authentication to use
+	 * @return The encrypted data
+	 * @throws ECIESException if the data could not be encrypted
+	 */
+	public static byte[] encrypt(byte[] data, ECPublicKey publicKey, ECIESMode mode) throws ECIESException {
+		if (!mode.isAEAD()) {
+			return encrypt(data, publicKey);
+		}
+		byte[] nonce = new byte[AEAD_NONCE_BYTES];
+		secureRandom.nextBytes(nonce);
+		return encrypt(data, publicKey.getPublicPoint(), EphemeralKeys.next(), nonce, mode);
+	}
+
+	@VisibleForTesting
+	static byte[] encrypt(byte[] data, ECPoint publicKeyPointOnCurve, ECKeyPair ephemeral, byte[] nonce, ECIESMode mode)
+		throws ECIESException {
+		try {
+			// Format is magic + version + ephemeral.pub + nonce + encrypted data and tag, where
+			// the header before the encrypted data is authenticated but not encrypted
+			byte[] keyE = hash(ephemeral.multiply(publicKeyPointOnCurve).getXCoord().getEncoded());
+			byte[] publicKey = ephemeral.getPublicKey().getBytes();
+			int headerLength = AEAD_MAGIC.length + 2 + publicKey.length + nonce.length;
+
+			AEADCipher cipher = mode.cipher();
+			cipher.init(true, new AEADParameters(new KeyParameter(keyE, 0, 32), AEAD_TAG_BITS, nonce));
+			// Header and ciphertext are written directly into the result, without intermediate copies
+			byte[] output = new byte[headerLength + cipher.getOutputSize(data.length)];
+			ByteBuffer.wrap(output).put(AEAD_MAGIC).put(mode.version()).put((byte) publicKey.length).put(publicKey).put(nonce);
+			cipher.processAADBytes(output, 0, headerLength);
+			int length = cipher.processBytes(data, 0, data.length, output, headerLength);
+			cipher.doFinal(output, headerLength + length);
+			return output;
+		} catch (Exception e) {
+			throw new ECIESException("Failed to encrypt", e);
+		}
+	}
+
+	private static <M extends ECMultiplicationScalar> byte[] decrypt(byte[] data, M multiplicationScalar, ECIESMode mode)
+		throws ECIESException {
+		try {
+			int publicKeyOffset = AEAD_MAGIC.length + 2;
+			int publicKeySize = data[publicKeyOffset - 1] & 0xFF;
+			int headerLength = publicKeyOffset + publicKeySize + AEAD_NONCE_BYTES;
+			if (data.length < headerLength) {
+				throw new EOFException("Unexpected end of encrypted data");
+			}
+			ECPublicKey ephemeralPublicKey = ECPublicKey.fromBytes(
+				Arrays.copyOfRange(data, publicKeyOffset, publicKeyOffset + publicKeySize)
+			);
+			byte[] nonce = Arrays.copyOfRange(data, headerLength - AEAD_NONCE_BYTES, headerLength);
+			byte[] keyE = hash(multiplicationScalar.multiply(ephemeralPublicKey.getPublicPoint()).getXCoord().getEncoded());
+
+			AEADCipher cipher = mode.cipher();
+			cipher.init(false, new AEADParameters(new KeyParameter(keyE, 0, 32), AEAD_TAG_BITS, nonce));
+			cipher.processAADBytes(data, 0, headerLength);
+			byte[] output = new byte[cipher.getOutputSize(data.length - headerLength)];
+			int length = cipher.processBytes(data, headerLength, data.length - headerLength, output, 0);
+			length += cipher.doFinal(output, length);
+			return length == output.length ? output : Arrays.copyOf(output, length);
+		} catch (Exception e) {
+			throw new ECIESException("Failed to decrypt", e);
+		}
+	}
+
+	private static ECIESMode aeadMode(byte[] data) {
+		if (data.length > AEAD_MAGIC.length && Arrays.equals(data, 0, AEAD_MAGIC.length, AEAD_MAGIC, 0, AEAD_MAGIC.length)) {
+			return ECIESMode.forVersion(data[AEAD_MAGIC.length]);
+		}
+		return null;
 	}
 
 	@VisibleForTesting
 	static byte[] encrypt(byte[] data, ECPoint publicKeyPointOnCurve, ECKeyPair ephemeral, byte[] iv) throws ECIESException {
+		ByteBuffer output = ByteBuffer.allocate(encryptedSize(data.length, ephemeral.getPublicKey().length()));
+		encrypt(ByteBuffer.wrap(data), publicKeyPointOnCurve, ephemeral, iv, output);
+		return output.array();
+	}
+
+	private static void encrypt(ByteBuffer plaintext, ECPoint publicKeyPointOnCurve, ECKeyPair ephemeral, byte[] iv, ByteBuffer ciphertext)
+		throws ECIESException {
 		try {
 			// 1. The destination is this.getPublicKey()
 			// 2. Generate 16 random bytes using a secure random number generator.
@@ -130,49 +361,235 @@ public final class ECIES {
 			byte[] h = hash(m.getXCoord().getEncoded());
 
 			// 6. The first 32 bytes of H are called key_e and the last 32 bytes are called key_m.
-			byte[] keyE = Arrays.copyOfRange(h, 0, 32);
+			KeyParameter keyE = new KeyParameter(h, 0, 32);
 			byte[] keyM = Arrays.copyOfRange(h, 32, 64);
 
+			byte[] publicKey = ephemeral.getPublicKey().getBytes();
+			int encryptedLength = Crypt.paddedLength(plaintext.remaining());
+			if (ciphertext.remaining() < encryptedSize(plaintext.remaining(), publicKey.length)) {
+				throw new BufferOverflowException();
+			}
+
+			// 10. Write out the encryption result IV + ephemeral.pub + encrypted + MAC, with the
+			//     cipher text and MAC written in place by steps 8 and 9
+			ciphertext.put(iv).put((byte) publicKey.length).put(publicKey).putInt(encryptedLength);
+			ByteBuffer encrypted = ciphertext.duplicate();
+
 			// 7. Pad the input text to a multiple of 16 bytes, in accordance to PKCS7.
 			// 8. Encrypt the data with AES-256-CBC, using IV as initialization vector,
 			// key_e as encryption key and the padded input text as payload. Call the output cipher text.
-			byte[] encrypted = Crypt.encrypt(iv, data, keyE);
+			Crypt.crypt(CryptOperation.ENCRYPT, iv, keyE, plaintext, ciphertext);
+			encrypted.limit(ciphertext.position());
 
 			// 9. Calculate a 32 byte MAC with HMACSHA256, using key_m as salt and
 			// IV + ephemeral.pub + cipher text as data. Call the output MAC.
-			byte[] mac = calculateMAC(keyM, iv, ephemeral.getPublicKey(), encrypted);
-
-			// 10. Write out the encryption result IV + ephemeral.pub + encrypted + MAC
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			DataOutputStream outputStream = new DataOutputStream(baos);
-			outputStream.write(iv);
-			outputStream.writeByte(ephemeral.getPublicKey().length());
-			outputStream.write(ephemeral.getPublicKey().getBytes());
-			outputStream.writeInt(encrypted.length);
-			outputStream.write(encrypted);
-			outputStream.write(mac);
-
-			return baos.toByteArray();
+			ciphertext.put(calculateMAC(keyM, iv, publicKey, encrypted));
 		} catch (Exception e) {
 			throw new ECIESException("Failed to encrypt", e);
 		}
 	}
 
-	private static byte[] calculateMAC(byte[] salt, byte[] iv, ECPublicKey publicKey, byte[] cipherText) throws IOException {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		DataOutputStream outputStream = new DataOutputStream(baos);
+	/**
+	 * Encrypts {@code length} bytes read from {@code plaintext} to {@code publicKey}, writing the
+	 * result to {@code ciphertext} in the same format as {@link #encrypt(byte[], ECPublicKey)}.
+	 * <p>
+	 * Data is processed in fixed size chunks, so memory use does not depend on {@code length}.
+	 * The length must be known up front, as the format records the ciphertext length before the
+	 * ciphertext itself.  Both channels must be blocking, and are not closed.
+	 *
+	 * @param plaintext The channel to read the plaintext from
+	 * @param length The number of plaintext bytes to read
+	 * @param ciphertext The channel to write the encrypted result to
+	 * @param publicKey The public key to encrypt to
+	 * @throws ECIESException if {@code plaintext} ends before {@code length} bytes,
+	 * 		or data could not be encrypted or written
+	 */
+	public static void encrypt(ReadableByteChannel plaintext, long length, WritableByteChannel ciphertext, ECPublicKey publicKey)
+		throws ECIESException {
+		byte[] iv = new byte[IV_BYTES];
+		secureRandom.nextBytes(iv);
+		encrypt(plaintext, length, ciphertext, publicKey.getPublicPoint(), EphemeralKeys.next(), iv);
+	}
+
+	/**
+	 * Stream based variant of {@link #encrypt(ReadableByteChannel, long, WritableByteChannel, ECPublicKey)}.
+	 * Neither stream is closed.
+	 */
+	public static void encrypt(InputStream plaintext, long length, OutputStream ciphertext, ECPublicKey publicKey) throws ECIESException {
+		encrypt(Channels.newChannel(plaintext), length, Channels.newChannel(ciphertext), publicKey);
+	}
+
+	@VisibleForTesting
+	static void encrypt(
+		ReadableByteChannel plaintext,
+		long length,
+		WritableByteChannel ciphertext,
+		ECPoint publicKeyPointOnCurve,
+		ECKeyPair ephemeral,
+		byte[] iv
+	) throws ECIESException {
+		try {
+			// Same steps as the array based encrypt, with the MAC calculated as the ciphertext is written
+			byte[] h = hash(ephemeral.multiply(publicKeyPointOnCurve).getXCoord().getEncoded());
+			BufferedBlockCipher cipher = Crypt.newBlockCipher(true, iv, new KeyParameter(h, 0, 32));
+			HMac mac = newMAC(Arrays.copyOfRange(h, 32, 64));
+
+			// PKCS7 always adds between 1 and a full block of padding
+			long encryptedLength = (length / cipher.getBlockSize() + 1) * cipher.getBlockSize();
+			if (length < 0 || encryptedLength > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Invalid plaintext length: " + length);
+			}
 
-		outputStream.write(iv);
-		outputStream.write(publicKey.getBytes());
-		outputStream.write(cipherText);
+			byte[] publicKey = ephemeral.getPublicKey().getBytes();
+			ByteBuffer header = ByteBuffer.allocate(iv.length + 1 + publicKey.length + Integer.BYTES);
+			header.put(iv).put((byte) publicKey.length).put(publicKey).putInt((int) encryptedLength);
+			header.flip();
+			writeFully(ciphertext, header);
+			mac.update(iv, 0, iv.length);
+			mac.update(publicKey, 0, publicKey.length);
+
+			ByteBuffer in = ByteBuffer.allocate(STREAM_CHUNK_BYTES);
+			byte[] out = new byte[cipher.getOutputSize(STREAM_CHUNK_BYTES)];
+			long remaining = length;
+			while (remaining > 0) {
+				in.clear();
+				in.limit((int) Math.min(remaining, STREAM_CHUNK_BYTES));
+				if (plaintext.read(in) < 0) {
+					throw new EOFException(String.format("Plaintext ended after %s of %s bytes", length - remaining, length));
+				}
+				remaining -= in.position();
+				writeEncrypted(ciphertext, mac, out, cipher.processBytes(in.array(), 0, in.position(), out, 0));
+			}
+			writeEncrypted(ciphertext, mac, out, cipher.doFinal(out, 0));
+			writeFully(ciphertext, ByteBuffer.wrap(doFinal(mac)));
+		} catch (Exception e) {
+			throw new ECIESException("Failed to encrypt", e);
+		}
+	}
 
+	/**
+	 * Decrypts data in the format produced by {@link #encrypt(byte[], ECPublicKey)}, read from
+	 * {@code ciphertext}, writing the decrypted data to {@code plaintext}.
+	 * <p>
+	 * Data is read and decrypted in fixed size chunks, but the decrypted data is held in memory
+	 * until the MAC at the end of the data has been checked, so nothing is written to
+	 * {@code plaintext} unless the data is authentic.  Memory use is therefore proportional to the
+	 * size of the data.  Both channels must be blocking, and are not closed.
+	 *
+	 * @param ciphertext The channel to read the encrypted data from
+	 * @param plaintext The channel to write the decrypted data to
+	 * @param multiplicationScalar The private key to decrypt with
+	 * @throws ECIESException if the data is malformed, fails authentication, or could not be read or written
+	 */
+	public static <M extends ECMultiplicationScalar> void decrypt(
+		ReadableByteChannel ciphertext,
+		WritableByteChannel plaintext,
+		M multiplicationScalar
+	) throws ECIESException {
 		try {
-			Mac mac = Mac.getInstance("HmacSHA256", "BC");
-			mac.init(new SecretKeySpec(salt, "HmacSHA256"));
-			return mac.doFinal(baos.toByteArray());
-		} catch (GeneralSecurityException e) {
-			throw new IOException(e);
+			ByteBuffer header = ByteBuffer.allocate(IV_BYTES + 1);
+			readFully(ciphertext, header);
+			byte[] iv = Arrays.copyOf(header.array(), IV_BYTES);
+			ByteBuffer publicKeyRaw = ByteBuffer.allocate(header.get(IV_BYTES) & 0xFF);
+			readFully(ciphertext, publicKeyRaw);
+			ECPublicKey ephemeralPublicKey = ECPublicKey.fromBytes(publicKeyRaw.array());
+			ByteBuffer encryptedLength = ByteBuffer.allocate(Integer.BYTES);
+			readFully(ciphertext, encryptedLength);
+
+			byte[] h = hash(multiplicationScalar.multiply(ephemeralPublicKey.getPublicPoint()).getXCoord().getEncoded());
+			BufferedBlockCipher cipher = Crypt.newBlockCipher(false, iv, new KeyParameter(h, 0, 32));
+			HMac mac = newMAC(Arrays.copyOfRange(h, 32, 64));
+			mac.update(iv, 0, iv.length);
+			mac.update(publicKeyRaw.array(), 0, publicKeyRaw.capacity());
+
+			ByteBuffer in = ByteBuffer.allocate(STREAM_CHUNK_BYTES);
+			byte[] out = new byte[cipher.getOutputSize(STREAM_CHUNK_BYTES)];
+			int remaining = encryptedLength.getInt(0);
+			// Grown as data arrives rather than sized from the unauthenticated length
+			ByteArrayOutputStream decrypted = new ByteArrayOutputStream(Math.max(0, Math.min(remaining, STREAM_CHUNK_BYTES)));
+			while (remaining > 0) {
+				in.clear();
+				in.limit(Math.min(remaining, STREAM_CHUNK_BYTES));
+				readFully(ciphertext, in);
+				remaining -= in.limit();
+				mac.update(in.array(), 0, in.limit());
+				// The cipher holds back the final block until doFinal, which is only called once authenticated
+				decrypted.write(out, 0, cipher.processBytes(in.array(), 0, in.limit(), out, 0));
+			}
+
+			ByteBuffer receivedMac = ByteBuffer.allocate(MAC_BYTES);
+			readFully(ciphertext, receivedMac);
+			byte[] pkMac = doFinal(mac);
+			if (!Arrays.equals(receivedMac.array(), pkMac)) {
+				throw new MacMismatchException(pkMac, receivedMac.array());
+			}
+			decrypted.write(out, 0, cipher.doFinal(out, 0));
+			writeFully(plaintext, ByteBuffer.wrap(decrypted.toByteArray()));
+		} catch (Exception e) {
+			throw new ECIESException("Failed to decrypt", e);
+		}
+	}
+
+	/**
+	 * Stream based variant of {@link #decrypt(ReadableByteChannel, WritableByteChannel, ECMultiplicationScalar)}.
+	 * Neither stream is closed.
+	 */
+	public static <M extends ECMultiplicationScalar> void decrypt(InputStream ciphertext, OutputStream plaintext, M multiplicationScalar)
+		throws ECIESException {
+		decrypt(Channels.newChannel(ciphertext), Channels.newChannel(plaintext), multiplicationScalar);
+	}
+
+	private static void writeEncrypted(WritableByteChannel channel, HMac mac, byte[] encrypted, int length) throws IOException {
+		mac.update(encrypted, 0, length);
+		writeFully(channel, ByteBuffer.wrap(encrypted, 0, length));
+	}
+
+	private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Unexpected end of encrypted data");
+			}
+		}
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static byte[] calculateMAC(byte[] salt, byte[] iv, byte[] publicKey, ByteBuffer cipherText) {
+		HMac mac = macs.get();
+		initMAC(mac, salt);
+		mac.update(iv, 0, iv.length);
+		mac.update(publicKey, 0, publicKey.length);
+		if (cipherText.hasArray()) {
+			mac.update(cipherText.array(), cipherText.arrayOffset() + cipherText.position(), cipherText.remaining());
+		} else {
+			byte[] buffer = macScratch.get();
+			while (cipherText.hasRemaining()) {
+				int chunk = Math.min(cipherText.remaining(), buffer.length);
+				cipherText.get(buffer, 0, chunk);
+				mac.update(buffer, 0, chunk);
+			}
 		}
+		return doFinal(mac);
+	}
+
+	// For uses that may span calls to other code, such as streaming, where the per-thread MAC can't be used
+	private static HMac newMAC(byte[] salt) {
+		return initMAC(new HMac(new SHA256Digest()), salt);
+	}
+
+	private static HMac initMAC(HMac mac, byte[] salt) {
+		mac.init(new KeyParameter(salt));
+		return mac;
+	}
+
+	private static byte[] doFinal(HMac mac) {
+		byte[] result = new byte[mac.getMacSize()];
+		mac.doFinal(result, 0);
+		return result;
 	}
 
 	private static byte[] hash(byte[] data) {
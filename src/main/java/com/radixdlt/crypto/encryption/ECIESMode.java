@@ -0,0 +1,87 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+
+import java.util.function.Supplier;
+
+/**
+ * The symmetric encryption and authentication used by {@link ECIES}.
+ * <p>
+ * The AEAD modes encrypt and authenticate in a single pass, and produce data with a
+ * magic and version prefix that {@link ECIES#decrypt(byte[], com.radixdlt.crypto.ECMultiplicationScalar)}
+ * uses to tell them apart from the legacy format.
+ */
+public enum ECIESMode {
+	/**
+	 * The original format: AES-256-CBC with PKCS7 padding, followed by a separate HMAC-SHA256.
+	 */
+	AES_CBC_HMAC_SHA256((byte) 0, null),
+	/**
+	 * AES-256-GCM with a 96 bit nonce and 128 bit tag.
+	 */
+	AES_GCM((byte) 1, () -> new GCMBlockCipher(new AESEngine())),
+	/**
+	 * ChaCha20-Poly1305 as specified in RFC 8439, which is constant time without hardware AES support.
+	 */
+	CHACHA20_POLY1305((byte) 2, ChaCha20Poly1305::new);
+
+	private final byte version;
+	private final Supplier<AEADCipher> cipherFactory;
+	// Ciphers are initialised with a new key and nonce for each use, so can be re-used within a thread
+	private final ThreadLocal<AEADCipher> ciphers;
+
+	ECIESMode(byte version, Supplier<AEADCipher> cipherFactory) {
+		this.version = version;
+		this.cipherFactory = cipherFactory;
+		this.ciphers = cipherFactory == null ? null : ThreadLocal.withInitial(cipherFactory);
+	}
+
+	boolean isAEAD() {
+		return this.cipherFactory != null;
+	}
+
+	byte version() {
+		return this.version;
+	}
+
+	/**
+	 * Returns this thread's cipher for this mode, which must be initialised before each use,
+	 * and not used again on the same thread until that use is complete.
+	 */
+	AEADCipher cipher() {
+		if (this.ciphers == null) {
+			throw new IllegalStateException(this + " is not an AEAD mode");
+		}
+		return this.ciphers.get();
+	}
+
+	static ECIESMode forVersion(byte version) {
+		for (ECIESMode mode : values()) {
+			if (mode.isAEAD() && mode.version == version) {
+				return mode;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.crypto.exception.ECIESException;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Encryption between a local key pair and remote public keys which exchange many messages,
+ * deriving a shared key with ECDH once per session rather than once per message.
+ * <p>
+ * A session with a remote key is started on the first message sent to it, using a random
+ * session identifier that is mixed into the derived key.  Messages within a session use an
+ * {@link ECIESMode AEAD mode}, with a nonce derived from a per-session message counter.
+ * Sessions, and the ECDH shared secrets of remote keys messages were received from, are
+ * cached with size and time based eviction.  The key of a received session is derived from the
+ * cached shared secret with a single hash, and a shared secret is only cached once a message
+ * using it has been authenticated, so unauthenticated messages cannot fill the cache.
+ * As a session that has been evicted is replaced by a new one, with a new identifier and
+ * hence a new key, counters are never re-used with the same key.
+ * <p>
+ * Unlike {@link ECIES}, the sender's static key is used rather than an ephemeral one, so
+ * messages are implicitly authenticated as coming from the holder of the sender's key, but
+ * compromise of either private key exposes all messages of all sessions between the two.
+ * Messages are not protected against replay.
+ * <p>
+ * {@link #decrypt(byte[])} also accepts any data accepted by {@link ECIES#decrypt(byte[],
+ * com.radixdlt.crypto.ECMultiplicationScalar)}.
+ */
+@ThreadSafe
+@SecurityCritical({ SecurityKind.PK_DECRYPT, SecurityKind.PK_ENCRYPT })
+public final class ECIESSessions {
+	// Set in the version byte, which is otherwise the mode's version, of session messages
+	private static final byte SESSION_FLAG = (byte) 0x80;
+	private static final int SESSION_ID_BYTES = 16;
+	private static final int NONCE_BYTES = 12;
+	// Sessions are replaced well before the 2^32 messages recommended as the limit for one AES-GCM key
+	private static final long MAX_MESSAGES_PER_SESSION = 1L << 31;
+
+	private final ECKeyPair localKey;
+	private final ECIESMode mode;
+	private final SecureRandom random = new SecureRandom();
+	private final Cache<ECPublicKey, Session> outgoing;
+	// ECDH shared secrets of remote keys that have sent authentic messages
+	private final Cache<ECPublicKey, byte[]> incoming;
+
+	private static final class Session {
+		private final byte[] id;
+		private final KeyParameter key;
+		private final AtomicLong counter = new AtomicLong();
+
+		private Session(byte[] id, KeyParameter key) {
+			this.id = id;
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Creates a session cache for the specified local key.
+	 *
+	 * @param localKey The key pair messages are sent from and received with
+	 * @param mode The AEAD mode used to encrypt messages
+	 * @param maximumSessions The maximum number of sessions started by this instance, and of remote keys
+	 * 		whose shared secrets are retained
+	 * @param sessionLifetime The time after which a session is replaced, or a shared secret forgotten
+	 */
+	public ECIESSessions(ECKeyPair localKey, ECIESMode mode, long maximumSessions, Duration sessionLifetime) {
+		if (!mode.isAEAD()) {
+			throw new IllegalArgumentException("Sessions require an AEAD mode: " + mode);
+		}
+		this.localKey = Objects.requireNonNull(localKey);
+		this.mode = mode;
+		this.outgoing = CacheBuilder.newBuilder()
+			.maximumSize(maximumSessions)
+			.expireAfterWrite(sessionLifetime)
+			.recordStats()
+			.build();
+		this.incoming = CacheBuilder.newBuilder()
+			.maximumSize(maximumSessions)
+			.expireAfterWrite(sessionLifetime)
+			.recordStats()
+			.build();
+	}
+
+	/**
+	 * Encrypts data to a remote public key, starting a new session with the key if there is none.
+	 *
+	 * @param data The data to encrypt
+	 * @param remoteKey The public key to encrypt to
+	 * @return The encrypted data
+	 * @throws ECIESException if the data could not be encrypted
+	 */
+	public byte[] encrypt(byte[] data, ECPublicKey remoteKey) throws ECIESException {
+		try {
+			Session session;
+			long counter;
+			do {
+				session = this.outgoing.get(remoteKey, () -> newSession(remoteKey));
+				counter = session.counter.getAndIncrement();
+				if (counter >= MAX_MESSAGES_PER_SESSION) {
+					// Remove only this session, in case another thread has already replaced it
+					this.outgoing.asMap().remove(remoteKey, session);
+				}
+			} while (counter >= MAX_MESSAGES_PER_SESSION);
+
+			// Format is magic + version + local.pub + session id + counter + encrypted data and tag,
+			// where the header before the encrypted data is authenticated but not encrypted
+			byte[] publicKey = this.localKey.getPublicKey().getBytes();
+			int headerLength = ECIES.AEAD_MAGIC.length + 2 + publicKey.length + SESSION_ID_BYTES + Long.BYTES;
+
+			AEADCipher cipher = this.mode.cipher();
+			cipher.init(true, new AEADParameters(session.key, ECIES.AEAD_TAG_BITS, nonce(counter)));
+			byte[] output = new byte[headerLength + cipher.getOutputSize(data.length)];
+			ByteBuffer.wrap(output)
+				.put(ECIES.AEAD_MAGIC)
+				.put((byte) (SESSION_FLAG | this.mode.version()))
+				.put((byte) publicKey.length)
+				.put(publicKey)
+				.put(session.id)
+				.putLong(counter);
+			cipher.processAADBytes(output, 0, headerLength);
+			int length = cipher.processBytes(data, 0, data.length, output, headerLength);
+			cipher.doFinal(output, headerLength + length);
+			return output;
+		} catch (Exception e) {
+			throw new ECIESException("Failed to encrypt", e);
+		}
+	}
+
+	/**
+	 * Decrypts data encrypted to the local key, either by {@link #encrypt(byte[], ECPublicKey)}
+	 * or by {@link ECIES}.
+	 *
+	 * @param data The encrypted data
+	 * @return The decrypted data
+	 * @throws ECIESException if the data is malformed or fails authentication
+	 */
+	public byte[] decrypt(byte[] data) throws ECIESException {
+		ECIESMode sessionMode = sessionMode(data);
+		if (sessionMode == null) {
+			return ECIES.decrypt(data, this.localKey);
+		}
+		try {
+			return decrypt(data, sessionMode);
+		} catch (ECIESException e) {
+			// Legacy ECIES data starts with a random IV, so can, very rarely, look like session data
+			try {
+				return ECIES.decrypt(data, this.localKey);
+			} catch (ECIESException legacyException) {
+				e.addSuppressed(legacyException);
+				throw e;
+			}
+		}
+	}
+
+	private byte[] decrypt(byte[] data, ECIESMode sessionMode) throws ECIESException {
+		try {
+			int publicKeyOffset = ECIES.AEAD_MAGIC.length + 2;
+			int publicKeySize = data[publicKeyOffset - 1] & 0xFF;
+			int sessionIdOffset = publicKeyOffset + publicKeySize;
+			int headerLength = sessionIdOffset + SESSION_ID_BYTES + Long.BYTES;
+			if (data.length < headerLength) {
+				throw new EOFException("Unexpected end of encrypted data");
+			}
+			ECPublicKey remoteKey = ECPublicKey.fromBytes(Arrays.copyOfRange(data, publicKeyOffset, sessionIdOffset));
+			byte[] sessionId = Arrays.copyOfRange(data, sessionIdOffset, sessionIdOffset + SESSION_ID_BYTES);
+			long counter = ByteBuffer.wrap(data, sessionIdOffset + SESSION_ID_BYTES, Long.BYTES).getLong();
+
+			byte[] cachedSecret = this.incoming.getIfPresent(remoteKey);
+			byte[] secret = cachedSecret == null ? sharedSecret(remoteKey) : cachedSecret;
+
+			AEADCipher cipher = sessionMode.cipher();
+			cipher.init(false, new AEADParameters(deriveKey(secret, sessionId), ECIES.AEAD_TAG_BITS, nonce(counter)));
+			cipher.processAADBytes(data, 0, headerLength);
+			byte[] output = new byte[cipher.getOutputSize(data.length - headerLength)];
+			int length = cipher.processBytes(data, headerLength, data.length - headerLength, output, 0);
+			length += cipher.doFinal(output, length);
+			if (cachedSecret == null) {
+				// Only cached once authenticated by doFinal
+				this.incoming.put(remoteKey, secret);
+			}
+			return length == output.length ? output : Arrays.copyOf(output, length);
+		} catch (Exception e) {
+			throw new ECIESException("Failed to decrypt", e);
+		}
+	}
+
+	/**
+	 * Returns statistics for the cache of sessions started by this instance.
+	 *
+	 * @return A snapshot of the cache statistics
+	 */
+	public CacheStats outgoingStats() {
+		return this.outgoing.stats();
+	}
+
+	/**
+	 * Returns statistics for the cache of shared secrets of remote keys messages were received from.
+	 *
+	 * @return A snapshot of the cache statistics
+	 */
+	public CacheStats incomingStats() {
+		return this.incoming.stats();
+	}
+
+	private Session newSession(ECPublicKey remoteKey) {
+		byte[] id = new byte[SESSION_ID_BYTES];
+		this.random.nextBytes(id);
+		return new Session(id, deriveKey(sharedSecret(remoteKey), id));
+	}
+
+	private byte[] sharedSecret(ECPublicKey remoteKey) {
+		return this.localKey.multiply(remoteKey.getPublicPoint()).getXCoord().getEncoded();
+	}
+
+	// The same derivation as ECIES, with the session identifier appended to the shared secret
+	private static KeyParameter deriveKey(byte[] sharedSecret, byte[] sessionId) {
+		byte[] h = HashUtils.sha512(
+			ByteBuffer.allocate(sharedSecret.length + sessionId.length).put(sharedSecret).put(sessionId).array()
+		).asBytes();
+		return new KeyParameter(h, 0, 32);
+	}
+
+	private static byte[] nonce(long counter) {
+		return ByteBuffer.allocate(NONCE_BYTES).putLong(NONCE_BYTES - Long.BYTES, counter).array();
+	}
+
+	private static ECIESMode sessionMode(byte[] data) {
+		int versionOffset = ECIES.AEAD_MAGIC.length;
+		if (data.length > versionOffset
+			&& Arrays.equals(data, 0, versionOffset, ECIES.AEAD_MAGIC, 0, versionOffset)
+			&& (data[versionOffset] & SESSION_FLAG) != 0) {
+			return ECIESMode.forVersion((byte) (data[versionOffset] & ~SESSION_FLAG));
+		}
+		return null;
+	}
+}
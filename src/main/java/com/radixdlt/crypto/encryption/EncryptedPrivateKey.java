@@ -17,19 +17,93 @@
 
 package com.radixdlt.crypto.encryption;
 
+import com.radixdlt.crypto.ECPublicKey;
 import org.bouncycastle.util.encoders.Base64;
 
 import java.util.Arrays;
+import java.util.Optional;
 
+/**
+ * A private key encrypted to a reader's public key, optionally with a recipient hint.
+ * <p>
+ * The hint is a short fingerprint of the reader's public key, which lets a reader skip
+ * protectors that are not meant for them without attempting to decrypt them.  Note that
+ * anyone who knows a reader's public key can also use the hint to recognise protectors
+ * for that reader.  The hint is not part of {@link #base64()} or {@link #toByteArray()}, so to
+ * round trip a protector, store {@link #getRecipientHint()} alongside it and restore both using
+ * {@link #fromBase64(String, byte[])}.
+ */
 public class EncryptedPrivateKey {
+	/**
+	 * Size of a recipient hint in bytes.
+	 */
+	public static final int RECIPIENT_HINT_BYTES = 4;
+
 	private final byte[] encryptedPrivateKey;
+	private final byte[] recipientHint;
 
 	public static EncryptedPrivateKey fromBase64(String base64) {
 		return new EncryptedPrivateKey(Base64.decode(base64));
 	}
 
+	/**
+	 * Restores an encrypted private key from the output of {@link #base64()} and the
+	 * recipient hint returned by {@link #getRecipientHint()}.
+	 *
+	 * @param base64 The base 64 encoded encrypted private key
+	 * @param recipientHint The recipient hint, or {@code null} if there is none
+	 * @return The encrypted private key
+	 */
+	public static EncryptedPrivateKey fromBase64(String base64, byte[] recipientHint) {
+		return new EncryptedPrivateKey(Base64.decode(base64), recipientHint);
+	}
+
 	public EncryptedPrivateKey(byte[] encryptedPrivateKey) {
+		this(encryptedPrivateKey, null);
+	}
+
+	/**
+	 * Creates an encrypted private key with the specified recipient hint.
+	 *
+	 * @param encryptedPrivateKey The encrypted private key
+	 * @param recipientHint The hint computed by {@link #recipientHint(ECPublicKey)} for the reader,
+	 * 		or {@code null} if there is none
+	 */
+	public EncryptedPrivateKey(byte[] encryptedPrivateKey, byte[] recipientHint) {
+		if (recipientHint != null && recipientHint.length != RECIPIENT_HINT_BYTES) {
+			throw new IllegalArgumentException("Recipient hint must be " + RECIPIENT_HINT_BYTES + " bytes: " + recipientHint.length);
+		}
 		this.encryptedPrivateKey = encryptedPrivateKey;
+		this.recipientHint = recipientHint == null ? null : recipientHint.clone();
+	}
+
+	/**
+	 * Computes the recipient hint for a reader.
+	 *
+	 * @param reader The reader's public key
+	 * @return The hint
+	 */
+	public static byte[] recipientHint(ECPublicKey reader) {
+		return Arrays.copyOf(reader.euid().toByteArray(), RECIPIENT_HINT_BYTES);
+	}
+
+	public Optional<byte[]> getRecipientHint() {
+		return Optional.ofNullable(this.recipientHint).map(byte[]::clone);
+	}
+
+	/**
+	 * Returns {@code false} if this key was definitely not encrypted to {@code reader}, which is
+	 * only possible if it has a recipient hint.
+	 *
+	 * @param reader The reader's public key
+	 * @return {@code true} if this key may have been encrypted to {@code reader}
+	 */
+	public boolean mayBeFor(ECPublicKey reader) {
+		return mayBeFor(recipientHint(reader));
+	}
+
+	boolean mayBeFor(byte[] readerHint) {
+		return this.recipientHint == null || Arrays.equals(this.recipientHint, readerHint);
 	}
 
 	public String base64() {
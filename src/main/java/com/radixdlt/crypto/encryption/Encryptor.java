@@ -28,8 +28,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Encryptor {
+	// Number of readers from which protectors are encrypted in parallel
+	private static final int PARALLEL_BUILD_THRESHOLD = 16;
+
 	public static class EncryptorBuilder {
 		private List<ECPublicKey> readers = new ArrayList<>();
 		private ECKeyPair sharedKey;
@@ -50,11 +54,17 @@ public class Encryptor {
 			return this;
 		}
 
+		/**
+		 * Encrypts the shared key to each reader, with a recipient hint.  For large numbers
+		 * of readers this is done in parallel, using the common fork-join pool.
+		 *
+		 * @return An {@link Encryptor} with a protector for each reader, in the order added
+		 */
 		public Encryptor build() {
-			List<EncryptedPrivateKey> protectors =
-				readers.stream()
-						.map(sharedKey::encryptPrivateKeyWithPublicKey)
-						.collect(Collectors.toList());
+			Stream<ECPublicKey> stream = readers.size() < PARALLEL_BUILD_THRESHOLD ? readers.stream() : readers.parallelStream();
+			List<EncryptedPrivateKey> protectors = stream
+				.map(sharedKey::encryptPrivateKeyWithPublicKey)
+				.collect(Collectors.toList());
 			return new Encryptor(protectors);
 		}
 	}
@@ -69,8 +79,21 @@ public class Encryptor {
 		return Collections.unmodifiableList(protectors);
 	}
 
+	/**
+	 * Decrypts data with the first protector that {@code accessor} can decrypt.  Protectors
+	 * whose recipient hint shows they are for another reader are skipped.
+	 *
+	 * @param data The data to decrypt
+	 * @param accessor The reader's key pair
+	 * @return The decrypted data
+	 * @throws EncryptorException if none of the protectors could be decrypted by {@code accessor}
+	 */
 	public byte[] decrypt(byte[] data, ECKeyPair accessor) throws EncryptorException {
+		byte[] accessorHint = EncryptedPrivateKey.recipientHint(accessor.getPublicKey());
 		for (EncryptedPrivateKey protector : protectors) {
+			if (!protector.mayBeFor(accessorHint)) {
+				continue;
+			}
 			try {
 				return accessor.decrypt(data, protector);
 			} catch (PrivateKeyException | PublicKeyException | ECIESException e) {
@@ -0,0 +1,223 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import com.radixdlt.crypto.ECKeyPair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded pool of freshly generated ephemeral key pairs, kept full by a background
+ * daemon thread, so that bursts of {@link ECIES} encryptions do not each wait for a
+ * key pair to be generated.
+ * <p>
+ * Every key pair is handed out by {@link #take()} at most once: key pairs are removed
+ * from the pool as they are taken, and the pool retains no reference to them.  If the
+ * pool is empty, a new key pair is generated on the calling thread instead.
+ * <p>
+ * The background thread backs off after failing to generate a key pair, and stops
+ * after {@value #MAX_CONSECUTIVE_FAILURES} consecutive failures, after which all key
+ * pairs are generated on the calling thread.
+ */
+@ThreadSafe
+@SecurityCritical({ SecurityKind.KEY_GENERATION, SecurityKind.PK_ENCRYPT })
+public final class EphemeralKeyPool implements AutoCloseable {
+	private static final Logger log = LogManager.getLogger(EphemeralKeyPool.class);
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+	// Doubled after each consecutive failure
+	private static final long INITIAL_BACKOFF_MILLIS = 10;
+	static final int MAX_CONSECUTIVE_FAILURES = 8;
+
+	private final int capacity;
+	private final Supplier<ECKeyPair> generator;
+	private final BlockingQueue<ECKeyPair> keys;
+	private final Thread refiller;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder refills = new LongAdder();
+
+	/**
+	 * Statistics for an {@link EphemeralKeyPool}.
+	 */
+	public static final class Stats {
+		private final long hitCount;
+		private final long missCount;
+		private final long refillCount;
+		private final int size;
+		private final int capacity;
+
+		private Stats(long hitCount, long missCount, long refillCount, int size, int capacity) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.refillCount = refillCount;
+			this.size = size;
+			this.capacity = capacity;
+		}
+
+		/**
+		 * @return The number of key pairs taken from the pool
+		 */
+		public long hitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * @return The number of key pairs generated on the calling thread because the pool was empty
+		 */
+		public long missCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * @return The number of key pairs generated by the background thread
+		 */
+		public long refillCount() {
+			return this.refillCount;
+		}
+
+		/**
+		 * @return The number of key pairs in the pool when the statistics were taken
+		 */
+		public int size() {
+			return this.size;
+		}
+
+		/**
+		 * @return The maximum number of key pairs held by the pool
+		 */
+		public int capacity() {
+			return this.capacity;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s[hits=%s, misses=%s, refills=%s, size=%s/%s]",
+				getClass().getSimpleName(), this.hitCount, this.missCount, this.refillCount, this.size, this.capacity);
+		}
+	}
+
+	/**
+	 * Creates a pool of at most {@code capacity} key pairs and starts filling it.
+	 *
+	 * @param capacity The maximum number of key pairs held, which must be positive
+	 * @return The new pool
+	 */
+	public static EphemeralKeyPool start(int capacity) {
+		return start(capacity, ECKeyPair::generateNew);
+	}
+
+	@VisibleForTesting
+	static EphemeralKeyPool start(int capacity, Supplier<ECKeyPair> generator) {
+		EphemeralKeyPool pool = new EphemeralKeyPool(capacity, generator);
+		pool.refiller.start();
+		return pool;
+	}
+
+	private EphemeralKeyPool(int capacity, Supplier<ECKeyPair> generator) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.generator = Objects.requireNonNull(generator);
+		this.keys = new ArrayBlockingQueue<>(capacity);
+		this.refiller = new Thread(this::refill, "EphemeralKeyPool-" + THREAD_COUNT.incrementAndGet());
+		this.refiller.setDaemon(true);
+	}
+
+	/**
+	 * Removes and returns a key pair that has not been, and will not be, returned by
+	 * any other call.
+	 *
+	 * @return An unused key pair
+	 */
+	public ECKeyPair take() {
+		ECKeyPair keyPair = this.keys.poll();
+		if (keyPair != null) {
+			this.hits.increment();
+			return keyPair;
+		}
+		this.misses.increment();
+		return this.generator.get();
+	}
+
+	@VisibleForTesting
+	boolean isRefilling() {
+		return this.refiller.isAlive();
+	}
+
+	/**
+	 * @return A snapshot of the pool's statistics
+	 */
+	public Stats stats() {
+		return new Stats(this.hits.sum(), this.misses.sum(), this.refills.sum(), this.keys.size(), this.capacity);
+	}
+
+	/**
+	 * Stops the background thread and discards any key pairs remaining in the pool.
+	 * Subsequent calls to {@link #take()} generate key pairs on the calling thread.
+	 */
+	@Override
+	public void close() {
+		this.refiller.interrupt();
+		this.keys.clear();
+	}
+
+	private void refill() {
+		try {
+			int failures = 0;
+			while (!Thread.currentThread().isInterrupted()) {
+				ECKeyPair keyPair;
+				try {
+					keyPair = this.generator.get();
+				} catch (RuntimeException e) {
+					// Callers fall back to generating their own key pairs, so retry for a while
+					failures += 1;
+					if (failures >= MAX_CONSECUTIVE_FAILURES) {
+						log.error("Failed to generate ephemeral key pair {} times, stopping refill", failures, e);
+						return;
+					}
+					log.error("Failed to generate ephemeral key pair", e);
+					Thread.sleep(INITIAL_BACKOFF_MILLIS << (failures - 1));
+					continue;
+				}
+				failures = 0;
+				// Blocks while the pool is full
+				this.keys.put(keyPair);
+				this.refills.increment();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			this.keys.clear();
+		}
+	}
+}
@@ -24,7 +24,6 @@ import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.google.common.hash.HashCode;
-import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.serialization.mapper.JacksonCborMapper;
 
 import java.io.IOException;
@@ -35,10 +34,14 @@ import java.io.IOException;
  */
 public class ApiSerializationModifier extends BeanSerializerModifier {
 
-    private final JacksonCborMapper hashDsonMapper;
+    private final DsonHasher hasher;
 
     public ApiSerializationModifier(JacksonCborMapper hashDsonMapper) {
-        this.hashDsonMapper = hashDsonMapper;
+        this(new DsonHasher(hashDsonMapper));
+    }
+
+    ApiSerializationModifier(DsonHasher hasher) {
+        this.hasher = hasher;
     }
 
     @Override
@@ -63,8 +66,7 @@ public class ApiSerializationModifier extends BeanSerializerModifier {
             if (o.getClass().isAnnotationPresent(SerializeWithHid.class)) {
                 jsonGenerator.writeStartObject();
                 serializer.unwrappingSerializer(null).serialize(o, jsonGenerator, serializerProvider);
-                byte[] bytesToHash = hashDsonMapper.writeValueAsBytes(o);
-                HashCode hash = HashUtils.sha256(bytesToHash);
+                HashCode hash = hasher.hash(o);
                 jsonGenerator.writeObjectField("hid", hash);
                 jsonGenerator.writeEndObject();
             } else {
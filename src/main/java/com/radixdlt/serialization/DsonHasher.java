@@ -0,0 +1,81 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.serialization;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.crypto.IncrementalHasher;
+import com.radixdlt.serialization.mapper.JacksonCborMapper;
+
+import java.io.IOException;
+
+/**
+ * Computes hashes of the {@link DsonOutput.Output#HASH} serialization of objects,
+ * remembering those of classes annotated with {@link MemoizeHash}.
+ */
+final class DsonHasher {
+	// Maximum number of hashes remembered
+	private static final int CACHE_SIZE = 16_384;
+
+	private static final ClassValue<Boolean> memoized = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return type.isAnnotationPresent(MemoizeHash.class);
+		}
+	};
+
+	private final JacksonCborMapper hashDsonMapper;
+	// Weak keys are compared by identity, and do not keep objects from being collected
+	private final Cache<Object, HashCode> hashes = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumSize(CACHE_SIZE)
+		.recordStats()
+		.build();
+
+	DsonHasher(JacksonCborMapper hashDsonMapper) {
+		this.hashDsonMapper = hashDsonMapper;
+	}
+
+	HashCode hash(Object o) throws IOException {
+		if (o == null || !memoized.get(o.getClass())) {
+			return computeHash(o);
+		}
+		// Racing threads may both compute the hash, which is harmless as the results are equal
+		HashCode hash = this.hashes.getIfPresent(o);
+		if (hash == null) {
+			hash = computeHash(o);
+			this.hashes.put(o, hash);
+		}
+		return hash;
+	}
+
+	CacheStats stats() {
+		return this.hashes.stats();
+	}
+
+	private HashCode computeHash(Object o) throws IOException {
+		// Encoded directly into the hash, without an intermediate array
+		IncrementalHasher hasher = HashUtils.sha256Hasher();
+		this.hashDsonMapper.writeValue(hasher.asOutputStream(), o);
+		return hasher.hash();
+	}
+}
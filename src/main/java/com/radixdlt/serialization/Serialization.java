@@ -23,9 +23,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
 import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.mapper.JacksonCborMapper;
 import com.radixdlt.serialization.mapper.JacksonJsonMapper;
@@ -62,6 +64,7 @@ public class Serialization {
 	private final ImmutableMap<Output, JacksonJsonMapper> jsonMappers;
 
 	private final SerializerIds idLookup;
+	private final DsonHasher hasher;
 
 	private final FilterProvider allProvider;
 	private final FilterProvider noneProvider;
@@ -84,9 +87,10 @@ public class Serialization {
 		ImmutableMap.Builder<Output, JacksonCborMapper> dsonBuilder = ImmutableMap.builder();
 
 		JacksonCborMapper hashDsonMapper = JacksonCborMapper.create(idLookup, filterProviderFor(policy.getIncludedFields(Output.HASH)), true);
+		this.hasher = new DsonHasher(hashDsonMapper);
 
 		JacksonCborMapper apiDsonMapper = JacksonCborMapper.create(idLookup, filterProviderFor(policy.getIncludedFields(Output.API)),
-				true, Optional.of(new ApiSerializationModifier(hashDsonMapper)));
+				true, Optional.of(new ApiSerializationModifier(this.hasher)));
 
 		dsonBuilder.put(Output.HASH, hashDsonMapper);
 		dsonBuilder.put(Output.API, apiDsonMapper);
@@ -103,7 +107,7 @@ public class Serialization {
 		JacksonJsonMapper hashJsonMapper = JacksonJsonMapper.create(idLookup, filterProviderFor(policy.getIncludedFields(Output.HASH)), false);
 
 		JacksonJsonMapper apiJsonMapper = JacksonJsonMapper.create(idLookup, filterProviderFor(policy.getIncludedFields(Output.API)),
-				false, Optional.of(new ApiSerializationModifier(hashDsonMapper)));
+				false, Optional.of(new ApiSerializationModifier(this.hasher)));
 
 		jsonBuilder.put(Output.HASH, hashJsonMapper);
 		jsonBuilder.put(Output.API, apiJsonMapper);
@@ -132,6 +136,32 @@ public class Serialization {
 		}
 	}
 
+	/**
+	 * Computes the hash of the specified object, equal to
+	 * {@link com.radixdlt.crypto.HashUtils#sha256(byte[])} of the {@link Output#HASH} DSON encoding,
+	 * which is written directly into the hash rather than an array.
+	 * Hashes of objects of classes annotated with {@link MemoizeHash} are remembered.
+	 *
+	 * @param o The object to hash
+	 * @return The hash of the object's DSON encoding
+	 */
+	public HashCode hashOf(Object o) {
+		try {
+			return hasher.hash(o);
+		} catch (IOException ex) {
+			throw new IllegalStateException(assembleMessage(o, "DSON"), ex);
+		}
+	}
+
+	/**
+	 * Returns statistics for the hashes remembered for objects of classes annotated with {@link MemoizeHash}.
+	 *
+	 * @return A snapshot of the cache statistics
+	 */
+	public CacheStats hashCacheStats() {
+		return hasher.stats();
+	}
+
 	/**
 	 * Convert the specified object to a JSON encoded string for the specified
 	 * output mode.
@@ -28,6 +28,7 @@ import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.CompactECDSASignature;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.identifiers.RRI;
@@ -122,6 +123,11 @@ public class JacksonCborMapper extends ObjectMapper {
 				JacksonCodecConstants.LONGS_VALUE,
 				Longs::toBytes
 		));
+		cborModule.addSerializer(CompactECDSASignature.class, new JacksonCborObjectBytesSerializer<>(
+				CompactECDSASignature.class,
+				JacksonCodecConstants.SIG_VALUE,
+				CompactECDSASignature::getBytes
+		));
 
 		cborModule.addKeySerializer(AID.class, new StdSerializer<AID>(AID.class) {
 			@Override
@@ -176,6 +182,11 @@ public class JacksonCborMapper extends ObjectMapper {
 				JacksonCodecConstants.LONGS_VALUE,
 				Longs::fromBytes
 		));
+		cborModule.addDeserializer(CompactECDSASignature.class, new JacksonCborObjectBytesDeserializer<>(
+				CompactECDSASignature.class,
+				JacksonCodecConstants.SIG_VALUE,
+				CompactECDSASignature::from
+		));
 		cborModule.addKeyDeserializer(AID.class, new KeyDeserializer() {
 			@Override
 			public Object deserializeKey(String key, DeserializationContext ctxt) throws IOException {
@@ -35,6 +35,7 @@ final class JacksonCodecConstants {
 	static final byte U30_VALUE   = 0x07; // 0x30 byte = 384 bit unsigned int
 	static final byte AID_VALUE   = 0x08;
 	static final byte LONGS_VALUE = 0x09;
+	static final byte SIG_VALUE   = 0x0a; // Compact 64 byte ECDSA signature
 
 	// Type tag prefixes used in strings for JSON mappings
 	static final int STR_VALUE_LEN     = 5;
@@ -48,4 +49,5 @@ final class JacksonCodecConstants {
 	static final String U30_STR_VALUE  = ":u30:"; // 0x30 byte = 384 bit unsigned int
 	static final String AID_STR_VALUE  = ":aid:";
 	static final String LONGS_STR_VALUE  = ":lng:";
+	static final String SIG_STR_VALUE  = ":sig:"; // Compact 64 byte ECDSA signature
 }
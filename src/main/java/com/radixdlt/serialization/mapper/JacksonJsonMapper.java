@@ -35,6 +35,7 @@ import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.CompactECDSASignature;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.identifiers.RRI;
@@ -115,6 +116,11 @@ public class JacksonJsonMapper extends ObjectMapper {
 				JacksonCodecConstants.AID_STR_VALUE,
 				AID::toString
 		));
+		jsonModule.addSerializer(CompactECDSASignature.class, new JacksonJsonObjectStringSerializer<>(
+				CompactECDSASignature.class,
+				JacksonCodecConstants.SIG_STR_VALUE,
+				CompactECDSASignature::toString
+		));
 
 		jsonModule.addKeySerializer(AID.class, new StdSerializer<AID>(AID.class) {
 			@Override
@@ -157,6 +163,11 @@ public class JacksonJsonMapper extends ObjectMapper {
 				JacksonCodecConstants.AID_STR_VALUE,
 				AID::from
 		));
+		jsonModule.addDeserializer(CompactECDSASignature.class, new JacksonJsonObjectStringDeserializer<>(
+				CompactECDSASignature.class,
+				JacksonCodecConstants.SIG_STR_VALUE,
+				CompactECDSASignature::from
+		));
 		jsonModule.addKeyDeserializer(AID.class, new KeyDeserializer() {
 			@Override
 			public Object deserializeKey(String key, DeserializationContext ctxt) throws IOException {
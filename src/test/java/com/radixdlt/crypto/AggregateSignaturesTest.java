@@ -0,0 +1,168 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.radixdlt.TestSetupUtils;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AggregateSignaturesTest {
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void equalsContract() {
+		EqualsVerifier.forClass(AggregateSignatures.class)
+			.withIgnoredFields("serializer", "version", "validators", "aggregateKey")
+			.verify();
+	}
+
+	@Test
+	public void aggregate_signature_verifies_for_signers() {
+		List<ECKeyPair> keyPairs = IntStream.range(0, 10).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		List<ECPublicKey> validators = keyPairs.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toList());
+		List<ECKeyPair> signing = ImmutableList.of(keyPairs.get(1), keyPairs.get(3), keyPairs.get(4), keyPairs.get(8));
+		Set<ECPublicKey> signers = signing.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toSet());
+		HashCode hash = HashUtils.random256();
+
+		AggregateSignatures signatures = AggregateSignatures.create(validators, signers, sign(signing, validators, hash));
+
+		assertEquals(4, signatures.count());
+		assertEquals(SignatureScheme.SCHNORR, signatures.signatureScheme());
+		assertThat(signatures.signedMessage(hash)).containsExactlyInAnyOrderElementsOf(signers);
+		assertTrue(signatures.isSignedByAll(hash));
+		assertTrue(signatures.isSignedByAtLeast(hash, 4));
+		assertFalse(signatures.isSignedByAtLeast(hash, 5));
+		assertTrue(signatures.isSignedByAtLeast(hash, ImmutableSet.of(keyPairs.get(1).getPublicKey()), 1));
+		assertFalse(signatures.isSignedByAtLeast(hash, ImmutableSet.of(keyPairs.get(0).getPublicKey()), 1));
+		assertTrue(signatures.signedMessage(HashUtils.random256()).isEmpty());
+
+		// Aggregate signature is a plain BIP-340 signature for the aggregate key
+		ImmutableList<ECPublicKey> signerKeys = AggregateSignatures.signerKeys(validators, signers);
+		assertTrue(MuSig.aggregateKey(signerKeys).verify(hash, signatures.getSignature()));
+	}
+
+	@Test
+	public void aggregate_signature_does_not_verify_for_other_signers() {
+		List<ECKeyPair> keyPairs = IntStream.range(0, 4).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		List<ECPublicKey> validators = keyPairs.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toList());
+		HashCode hash = HashUtils.random256();
+		SchnorrSignature signature = sign(keyPairs.subList(0, 3), validators, hash);
+
+		Set<ECPublicKey> claimedSigners = ImmutableSet.of(validators.get(0), validators.get(1), validators.get(3));
+		AggregateSignatures signatures = AggregateSignatures.create(validators, claimedSigners, signature);
+		assertTrue(signatures.signedMessage(hash).isEmpty());
+		assertFalse(signatures.isSignedByAtLeast(hash, 1));
+	}
+
+	@Test
+	public void verification_requires_validator_set() {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		List<ECPublicKey> validators = ImmutableList.of(keyPair.getPublicKey());
+		HashCode hash = HashUtils.random256();
+		SchnorrSignature signature = sign(List.of(keyPair), validators, hash);
+		AggregateSignatures signatures = AggregateSignatures.create(validators, ImmutableSet.copyOf(validators), signature);
+		AggregateSignatures unbound = new AggregateSignatures().withValidators(validators);
+
+		assertTrue(new AggregateSignatures().signedMessage(hash).isEmpty());
+		assertTrue(unbound.isEmpty());
+		assertTrue(signatures.isSignedByAll(hash));
+	}
+
+	@Test
+	public void concatenating_new_signer_is_not_supported() {
+		List<ECKeyPair> keyPairs = IntStream.range(0, 3).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		List<ECPublicKey> validators = keyPairs.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toList());
+		HashCode hash = HashUtils.random256();
+		SchnorrSignature signature = sign(keyPairs.subList(0, 2), validators, hash);
+		AggregateSignatures signatures = AggregateSignatures.create(validators, ImmutableSet.copyOf(validators.subList(0, 2)), signature);
+		ECPublicKey newSigner = validators.get(2);
+
+		assertSame(signatures, signatures.concatenate(validators.get(0), signature));
+		assertThatThrownBy(() -> signatures.concatenate(newSigner, keyPairs.get(2).schnorrSigner().sign(hash.asBytes())))
+			.isInstanceOf(UnsupportedOperationException.class);
+		assertEquals(2, signatures.count());
+		assertTrue(signatures.isSignedByAll(hash));
+		assertThatThrownBy(() -> signatures.concatenate(newSigner, keyPairs.get(2).sign(hash)))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> signatures.concatenate(ECKeyPair.generateNew().getPublicKey(), signature))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AggregateSignatures().concatenate(newSigner, signature))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void aggregate_key_is_reused_across_verifications() {
+		List<ECKeyPair> keyPairs = IntStream.range(0, 3).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		List<ECPublicKey> validators = keyPairs.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toList());
+		HashCode hash1 = HashUtils.random256();
+		HashCode hash2 = HashUtils.random256();
+		AggregateSignatures first = AggregateSignatures.create(validators, ImmutableSet.copyOf(validators), sign(keyPairs, validators, hash1));
+		AggregateSignatures second = AggregateSignatures.create(validators, ImmutableSet.copyOf(validators), sign(keyPairs, validators, hash2));
+
+		assertTrue(first.isSignedByAll(hash1));
+		assertFalse(first.isSignedByAtLeast(hash2, 1));
+		assertTrue(second.isSignedByAll(hash2));
+		assertTrue(second.withValidators(validators).isSignedByAll(hash2));
+		assertFalse(second.withValidators(Lists.reverse(validators)).isSignedByAtLeast(hash2, 1));
+	}
+
+	@Test
+	public void nonce_cannot_be_reused() {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		List<ECPublicKey> signers = ImmutableList.of(keyPair.getPublicKey());
+		MuSigNonce nonce = MuSig.generateNonce();
+		byte[] aggregateNonce = MuSig.aggregateNonces(ImmutableList.of(nonce.getPublicNonce()));
+		byte[] message = HashUtils.random256().asBytes();
+
+		MuSig.partialSign(keyPair, nonce, aggregateNonce, signers, message);
+		assertThatThrownBy(() -> MuSig.partialSign(keyPair, nonce, aggregateNonce, signers, message))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static SchnorrSignature sign(List<ECKeyPair> signing, List<ECPublicKey> validators, HashCode hash) {
+		Set<ECPublicKey> signerSet = signing.stream().map(ECKeyPair::getPublicKey).collect(Collectors.toSet());
+		ImmutableList<ECPublicKey> signers = AggregateSignatures.signerKeys(validators, signerSet);
+		List<MuSigNonce> nonces = signing.stream().map(k -> MuSig.generateNonce()).collect(Collectors.toList());
+		byte[] aggregateNonce = MuSig.aggregateNonces(nonces.stream().map(MuSigNonce::getPublicNonce).collect(Collectors.toList()));
+		List<byte[]> partialSignatures = IntStream.range(0, signing.size())
+			.mapToObj(i -> MuSig.partialSign(signing.get(i), nonces.get(i), aggregateNonce, signers, hash.asBytes()))
+			.collect(Collectors.toList());
+		return MuSig.aggregatePartialSignatures(aggregateNonce, signers, hash.asBytes(), partialSignatures);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingKeyHandlerTest {
+	private final byte[] hash = HashUtils.sha256("Fubar".getBytes()).asBytes();
+	private final ECKeyPair keyPair = ECKeyPair.generateNew();
+	private KeyHandler delegate;
+	private CachingKeyHandler keyHandler;
+
+	@Before
+	public void setUp() {
+		this.delegate = mock(KeyHandler.class);
+		this.keyHandler = new CachingKeyHandler(this.delegate, 16);
+	}
+
+	@Test
+	public void successful_verification_is_only_performed_once() {
+		ECDSASignature signature = new ECDSASignature(BigInteger.ONE, BigInteger.TEN);
+		when(delegate.verify(any(byte[].class), any(ECDSASignature.class), any(ECPublicKey.class))).thenReturn(true);
+
+		assertTrue(keyHandler.verify(hash, signature, keyPair.getPublicKey()));
+		assertTrue(keyHandler.verify(hash.clone(), new ECDSASignature(BigInteger.ONE, BigInteger.TEN), keyPair.getPublicKey()));
+		// Raw key bytes share the same cache entry
+		assertTrue(keyHandler.verify(hash, signature, keyPair.getPublicKey().getBytes()));
+
+		verify(delegate, times(1)).verify(any(byte[].class), eq(signature), any(ECPublicKey.class));
+		assertEquals(2, keyHandler.stats().hitCount());
+	}
+
+	@Test
+	public void failed_verification_is_not_cached() {
+		ECDSASignature signature = new ECDSASignature(BigInteger.ONE, BigInteger.TEN);
+		when(delegate.verify(any(byte[].class), any(ECDSASignature.class), any(ECPublicKey.class))).thenReturn(false);
+
+		assertFalse(keyHandler.verify(hash, signature, keyPair.getPublicKey()));
+		assertFalse(keyHandler.verify(hash, signature, keyPair.getPublicKey()));
+
+		verify(delegate, times(2)).verify(any(byte[].class), eq(signature), any(ECPublicKey.class));
+	}
+
+	@Test
+	public void different_signature_is_verified_separately() {
+		when(delegate.verify(any(byte[].class), any(ECDSASignature.class), any(ECPublicKey.class))).thenReturn(true);
+
+		assertTrue(keyHandler.verify(hash, new ECDSASignature(BigInteger.ONE, BigInteger.TEN), keyPair.getPublicKey()));
+		assertTrue(keyHandler.verify(hash, new ECDSASignature(BigInteger.TEN, BigInteger.ONE), keyPair.getPublicKey()));
+
+		verify(delegate, times(2)).verify(any(byte[].class), any(ECDSASignature.class), any(ECPublicKey.class));
+	}
+
+	@Test
+	public void cached_handler_verifies_real_signatures() {
+		CachingKeyHandler realHandler = new CachingKeyHandler(ECKeyUtils.keyHandler, 16);
+		ECDSASignature signature = keyPair.sign(hash);
+		ECPublicKey otherKey = ECKeyPair.generateNew().getPublicKey();
+
+		assertTrue(realHandler.verify(hash, signature, keyPair.getPublicKey()));
+		assertTrue(realHandler.verify(hash, signature, keyPair.getPublicKey()));
+		assertFalse(realHandler.verify(hash, signature, otherKey));
+	}
+}
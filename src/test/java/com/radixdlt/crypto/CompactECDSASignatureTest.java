@@ -0,0 +1,120 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
+import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactECDSASignatureTest {
+	private final Serialization serialization = Serialization.create(
+		ClasspathScanningSerializerIds.create(),
+		ClasspathScanningSerializationPolicy.create()
+	);
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void equalsContract() {
+		EqualsVerifier.forClass(CompactECDSASignature.class).verify();
+	}
+
+	@Test
+	public void converts_to_and_from_ecdsa_signature() {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		for (int i = 0; i < 100; i++) {
+			byte[] hash = HashUtils.random256().asBytes();
+			ECDSASignature signature = keyPair.sign(hash);
+			CompactECDSASignature compact = CompactECDSASignature.from(signature);
+
+			assertEquals(CompactECDSASignature.BYTES, compact.getBytes().length);
+			assertEquals(signature.getR(), compact.getR());
+			assertEquals(signature.getS(), compact.getS());
+			assertEquals(signature, compact.toECDSASignature());
+			assertTrue(keyPair.getPublicKey().verify(hash, compact.toECDSASignature()));
+		}
+	}
+
+	@Test
+	public void short_components_are_zero_padded() {
+		CompactECDSASignature compact = CompactECDSASignature.from(new ECDSASignature(BigInteger.ONE, BigInteger.TWO));
+
+		byte[] expected = new byte[CompactECDSASignature.BYTES];
+		expected[CompactECDSASignature.COMPONENT_BYTES - 1] = 1;
+		expected[CompactECDSASignature.BYTES - 1] = 2;
+		assertArrayEquals(expected, compact.getBytes());
+		assertEquals(compact, CompactECDSASignature.from(compact.toString()));
+		assertEquals(compact, CompactECDSASignature.from(compact.getBytes()));
+	}
+
+	@Test
+	public void oversized_components_are_rejected() {
+		BigInteger tooBig = BigInteger.ONE.shiftLeft(CompactECDSASignature.COMPONENT_BYTES * Byte.SIZE);
+
+		assertThatThrownBy(() -> CompactECDSASignature.from(new ECDSASignature(tooBig, BigInteger.ONE)))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CompactECDSASignature.from(new byte[CompactECDSASignature.BYTES - 1]))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void trailing_bytes_are_rejected() throws Exception {
+		CompactECDSASignature compact = CompactECDSASignature.from(ECKeyPair.generateNew().sign(HashUtils.random256()));
+		byte[] padded = Arrays.copyOf(compact.getBytes(), CompactECDSASignature.BYTES + 1);
+
+		assertThatThrownBy(() -> CompactECDSASignature.from(padded))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertEquals(compact, CompactECDSASignature.from(padded, 0));
+
+		// CBOR byte string of the type prefix and signature bytes, with one extra trailing byte
+		byte[] dson = serialization.toDson(compact, Output.ALL);
+		byte[] paddedDson = Arrays.copyOf(dson, dson.length + 1);
+		paddedDson[1] += 1;
+		assertEquals(compact, serialization.fromDson(dson, CompactECDSASignature.class));
+		assertThatThrownBy(() -> serialization.fromDson(paddedDson, CompactECDSASignature.class))
+			.hasMessageContaining("Bytes length must be 64 but is 65");
+	}
+
+	@Test
+	public void dson_and_json_round_trip() throws Exception {
+		CompactECDSASignature compact = CompactECDSASignature.from(ECKeyPair.generateNew().sign(HashUtils.random256()));
+
+		byte[] dson = serialization.toDson(compact, Output.ALL);
+		assertEquals(compact, serialization.fromDson(dson, CompactECDSASignature.class));
+
+		String json = serialization.toJson(compact, Output.ALL);
+		assertEquals("\":sig:" + compact + "\"", json);
+		assertEquals(compact, serialization.fromJson(json, CompactECDSASignature.class));
+	}
+}
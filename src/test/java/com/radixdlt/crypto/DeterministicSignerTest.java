@@ -0,0 +1,79 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.TestSetupUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeterministicSignerTest {
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void signatures_match_deterministic_key_pair_signatures() {
+		for (int i = 0; i < 20; i++) {
+			ECKeyPair keyPair = ECKeyPair.generateNew();
+			DeterministicSigner signer = keyPair.deterministicSigner();
+			assertEquals(keyPair.getPublicKey(), signer.getPublicKey());
+
+			for (int j = 0; j < 10; j++) {
+				HashCode hash = HashUtils.random256();
+				ECDSASignature signature = signer.sign(hash);
+
+				assertEquals(keyPair.sign(hash.asBytes(), true, true), signature);
+				assertTrue(keyPair.getPublicKey().verify(hash, signature));
+			}
+		}
+	}
+
+	@Test
+	public void signer_can_be_shared_between_threads() throws Exception {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		DeterministicSigner signer = keyPair.deterministicSigner();
+		List<HashCode> hashes = IntStream.range(0, 200).mapToObj(i -> HashUtils.random256()).collect(Collectors.toList());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<ECDSASignature>> tasks = hashes.stream()
+				.map(hash -> (Callable<ECDSASignature>) () -> signer.sign(hash))
+				.collect(Collectors.toList());
+			List<Future<ECDSASignature>> signatures = executor.invokeAll(tasks);
+			for (int i = 0; i < hashes.size(); i++) {
+				assertEquals(keyPair.sign(hashes.get(i).asBytes(), true, true), signatures.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
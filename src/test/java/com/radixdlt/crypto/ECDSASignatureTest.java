@@ -10,12 +10,14 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.lang.reflect.Type;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -35,6 +37,14 @@ public class ECDSASignatureTest {
 				.verify();
 	}
 
+	@Test
+	public void recovery_id_must_be_in_range() {
+		assertThatThrownBy(() -> new ECDSASignature(BigInteger.ONE, BigInteger.ONE, -1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ECDSASignature(BigInteger.ONE, BigInteger.ONE, 4)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ECDSASignature(BigInteger.ONE, BigInteger.ONE).getRecoveryId()).isInstanceOf(IllegalStateException.class);
+		assertEquals(3, new ECDSASignature(BigInteger.ONE, BigInteger.ONE, 3).getRecoveryId());
+	}
+
 	@Test
 	public void test_rfc6979_determinstic_signatures() throws Exception {
 
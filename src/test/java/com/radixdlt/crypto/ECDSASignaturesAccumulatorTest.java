@@ -0,0 +1,125 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.TestSetupUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ECDSASignaturesAccumulatorTest {
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void completes_once_quorum_of_distinct_signers_is_reached() {
+		HashCode hash = HashUtils.random256();
+		List<ECKeyPair> keyPairs = IntStream.range(0, 4).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		ECDSASignaturesAccumulator accumulator = new ECDSASignaturesAccumulator(hash, 3);
+
+		assertFalse(accumulator.add(keyPairs.get(0).getPublicKey(), keyPairs.get(0).sign(hash)).isPresent());
+		// Duplicate votes are not counted
+		assertFalse(accumulator.add(keyPairs.get(0).getPublicKey(), keyPairs.get(0).sign(hash)).isPresent());
+		assertFalse(accumulator.add(keyPairs.get(1).getPublicKey(), keyPairs.get(1).sign(hash)).isPresent());
+		assertEquals(2, accumulator.count());
+		assertFalse(accumulator.isComplete());
+		assertFalse(accumulator.result().isPresent());
+
+		Optional<ECDSASignatures> result = accumulator.add(keyPairs.get(2).getPublicKey(), keyPairs.get(2).sign(hash));
+		assertTrue(result.isPresent());
+		assertTrue(accumulator.isComplete());
+		assertEquals(result, accumulator.result());
+		assertEquals(3, result.get().count());
+		assertTrue(result.get().isSignedByAll(hash));
+
+		// Late votes are ignored
+		assertFalse(accumulator.add(keyPairs.get(3).getPublicKey(), keyPairs.get(3).sign(hash)).isPresent());
+		assertEquals(3, accumulator.result().get().count());
+	}
+
+	@Test
+	public void invalid_signature_does_not_block_signer() {
+		HashCode hash = HashUtils.random256();
+		ECKeyPair signer = ECKeyPair.generateNew();
+		ECDSASignaturesAccumulator accumulator = new ECDSASignaturesAccumulator(hash, 1);
+
+		// Signature by another key, and signature by the signer of another message
+		assertFalse(accumulator.add(signer.getPublicKey(), ECKeyPair.generateNew().sign(hash)).isPresent());
+		assertFalse(accumulator.add(signer.getPublicKey(), signer.sign(HashUtils.random256())).isPresent());
+		assertEquals(0, accumulator.count());
+
+		Optional<ECDSASignatures> result = accumulator.add(signer.getPublicKey(), signer.sign(hash));
+		assertTrue(result.isPresent());
+		assertTrue(result.get().isSignedByAll(hash));
+	}
+
+	@Test
+	public void concurrent_adds_complete_exactly_once() throws Exception {
+		HashCode hash = HashUtils.random256();
+		List<ECKeyPair> keyPairs = IntStream.range(0, 100).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		ECDSASignaturesAccumulator accumulator = new ECDSASignaturesAccumulator(hash, 67);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Optional<ECDSASignatures>>> tasks = keyPairs.stream()
+				.map(k -> (Callable<Optional<ECDSASignatures>>) () -> accumulator.add(k.getPublicKey(), k.sign(hash)))
+				.collect(Collectors.toList());
+			List<Optional<ECDSASignatures>> results = executor.invokeAll(tasks).stream()
+				.map(this::get)
+				.filter(Optional::isPresent)
+				.collect(Collectors.toList());
+
+			assertEquals(1, results.size());
+			assertEquals(results.get(0), accumulator.result());
+			assertTrue(results.get(0).get().count() >= 67);
+			assertTrue(results.get(0).get().isSignedByAll(hash));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void quorum_must_be_positive() {
+		assertThatThrownBy(() -> new ECDSASignaturesAccumulator(HashUtils.random256(), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private <T> T get(Future<T> future) {
+		try {
+			return future.get();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -29,14 +29,17 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -54,6 +57,9 @@ public class ECKeyPairTest {
 	@Rule
 	public ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void equalsContract() {
 		EqualsVerifier.forClass(ECKeyPair.class)
@@ -78,6 +84,17 @@ public class ECKeyPairTest {
 		}
 	}
 
+	@Test
+	public void generated_public_key_matches_generator_multiplied_by_private_key() {
+		for (int i = 0; i < 100; i++) {
+			ECKeyPair key = ECKeyPair.generateNew();
+			BigInteger d = new BigInteger(1, key.getPrivateKey());
+
+			assertEquals(ECKeyPair.BYTES, key.getPrivateKey().length);
+			assertArrayEquals(ECKeyUtils.spec().getG().multiply(d).getEncoded(true), key.getPublicKey().getBytes());
+		}
+	}
+
 	@Test
 	public void signAndVerify() throws Exception {
 		final int iterations = 2000;
@@ -177,6 +194,29 @@ public class ECKeyPairTest {
 		assertTrue(keyPair2.getPublicKey().verify(hash1, signature1));
 	}
 
+	@Test
+	public void public_key_can_be_recovered_from_recoverable_signature() throws PublicKeyException {
+		for (int i = 0; i < 100; i++) {
+			ECKeyPair keyPair = ECKeyPair.generateNew();
+			HashCode hash = HashUtils.random256();
+			ECDSASignature signature = keyPair.signRecoverable(hash);
+
+			assertTrue(signature.hasRecoveryId());
+			assertTrue(keyPair.getPublicKey().verify(hash, signature));
+			assertEquals(keyPair.getPublicKey(), ECPublicKey.recoverFrom(hash, signature));
+			assertThat(ECPublicKey.recoverFrom(HashUtils.random256(), signature), not(equalTo(keyPair.getPublicKey())));
+		}
+	}
+
+	@Test
+	public void recovering_public_key_from_signature_without_recovery_id_fails() {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		HashCode hash = HashUtils.random256();
+		ECDSASignature signature = keyPair.sign(hash);
+
+		assertThatThrownBy(() -> ECPublicKey.recoverFrom(hash, signature)).isInstanceOf(PublicKeyException.class);
+	}
+
 	@Test
 	public void validateSeedBeforeUse() {
 		assertThatThrownBy(() -> ECKeyPair.fromSeed(null)).isInstanceOf(NullPointerException.class);
@@ -185,7 +225,7 @@ public class ECKeyPairTest {
 
 	@Test
 	public void keyPairCanBeLoadedFromFile() throws IOException, PrivateKeyException, PublicKeyException {
-		File testKeyPair = new File("test-private-key.ks");
+		File testKeyPair = this.folder.newFile("test-private-key.ks");
 		var sourceKeyPair = ECKeyPair.generateNew();
 
 		try (OutputStream outputStream = new FileOutputStream(testKeyPair)) {
@@ -199,7 +239,7 @@ public class ECKeyPairTest {
 
 	@Test
 	public void shortFileIsRejected() throws IOException {
-		File testKeyPair = new File("test-private-key.ks");
+		File testKeyPair = this.folder.newFile("test-private-key.ks");
 
 		try (OutputStream outputStream = new FileOutputStream(testKeyPair)) {
 			outputStream.write(new byte[ECKeyPair.BYTES - 1]);
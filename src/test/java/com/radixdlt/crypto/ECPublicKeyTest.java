@@ -4,13 +4,52 @@ import com.radixdlt.crypto.exception.PublicKeyException;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 public class ECPublicKeyTest {
 	@Test
 	public void equalsContract() throws PublicKeyException {
 		ECPublicKey pk = ECPublicKey.fromBase64("AtuRjZPGw0b0BIYx46e0iKCaFU5EPnPx7/wLk6Vcursg");
 		EqualsVerifier.forClass(ECPublicKey.class)
-			.withIgnoredFields("uid") // cached value
+			.withIgnoredFields("uid", "decoded") // cached values
 			.withCachedHashCode("hashCode", "computeHashCode", pk)
 			.verify();
 	}
+
+	@Test
+	public void repeated_decoding_returns_shared_instance() throws PublicKeyException {
+		byte[] keyBytes = ECKeyPair.generateNew().getPublicKey().getBytes().clone();
+		long hits = ECPublicKey.cacheStats().hitCount();
+
+		ECPublicKey first = ECPublicKey.fromBytes(keyBytes);
+		ECPublicKey second = ECPublicKey.fromBytes(keyBytes.clone());
+
+		assertSame(first, second);
+		assertTrue(ECPublicKey.cacheStats().hitCount() > hits);
+	}
+
+	@Test
+	public void interned_key_is_not_affected_by_caller_mutation() throws PublicKeyException {
+		byte[] keyBytes = ECKeyPair.generateNew().getPublicKey().getBytes().clone();
+		byte[] original = keyBytes.clone();
+
+		ECPublicKey key = ECPublicKey.fromBytes(keyBytes);
+		keyBytes[1] ^= 1;
+
+		assertArrayEquals(original, key.getBytes());
+		assertSame(key, ECPublicKey.fromBytes(original));
+	}
+
+	@Test
+	public void interned_key_is_not_affected_by_mutating_returned_bytes() throws PublicKeyException {
+		byte[] original = ECKeyPair.generateNew().getPublicKey().getBytes();
+		ECPublicKey key = ECPublicKey.fromBytes(original);
+
+		key.getBytes()[1] ^= 1;
+
+		assertArrayEquals(original, key.getBytes());
+		assertSame(key, ECPublicKey.fromBytes(original));
+	}
 }
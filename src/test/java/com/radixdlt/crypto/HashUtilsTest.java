@@ -26,9 +26,13 @@ import org.assertj.core.api.Assertions;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -149,6 +153,44 @@ public class HashUtilsTest {
 		);
 	}
 
+	@Test
+	public void hashing_in_parts_or_from_a_buffer_matches_hashing_an_array() {
+		byte[] data = "Hello Radix".getBytes(StandardCharsets.UTF_8);
+		HashCode expected = HashUtils.sha256(data);
+
+		assertEquals(expected, HashUtils.sha256(ByteBuffer.wrap(data)));
+		assertEquals(expected, HashUtils.sha256Hasher().update(data, 0, 5).update(ByteBuffer.wrap(data, 5, 6)).hash());
+	}
+
+	@Test
+	public void batch_hashes_match_single_hashes_for_small_and_parallel_batches() {
+		for (int count : new int[] {0, 1, 10, 2_000}) {
+			Random random = new Random(count);
+			List<byte[]> messages = new ArrayList<>();
+			ByteBuffer heap = ByteBuffer.allocate(count * 64);
+			ByteBuffer direct = ByteBuffer.allocateDirect(count * 64);
+			for (int i = 0; i < count; i++) {
+				byte[] message = new byte[64];
+				random.nextBytes(message);
+				messages.add(message);
+				heap.put(message);
+				direct.put(message);
+			}
+			List<HashCode> expected = messages.stream().map(HashUtils::sha256).collect(Collectors.toList());
+
+			assertEquals(expected, HashUtils.sha256Batch(messages));
+			assertEquals(expected, HashUtils.sha256Batch(direct.flip(), 64));
+			assertEquals(expected, HashUtils.sha256Batch(heap.flip(), 64));
+			assertEquals(count * 64, direct.remaining());
+		}
+	}
+
+	@Test
+	public void batch_of_partial_messages_is_rejected() {
+		Assertions.assertThatThrownBy(() -> HashUtils.sha256Batch(ByteBuffer.allocate(100), 64))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
 	@Test
 	public void test_hash_of_publickey() throws Exception {
 		String publicKeyHex = "03" + deadbeefString();
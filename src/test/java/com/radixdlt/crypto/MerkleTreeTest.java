@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.google.common.primitives.Bytes;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MerkleTreeTest {
+
+	@Test
+	public void leaves_and_nodes_are_hashed_with_distinct_prefixes() {
+		HashCode a = HashUtils.sha256(new byte[] {1});
+		HashCode b = HashUtils.sha256(new byte[] {2});
+		HashCode leafA = HashUtils.sha256(Bytes.concat(new byte[] {0}, a.asBytes()));
+		HashCode leafB = HashUtils.sha256(Bytes.concat(new byte[] {0}, b.asBytes()));
+
+		assertEquals(HashUtils.sha256(Bytes.concat(new byte[] {1}, leafA.asBytes(), leafB.asBytes())), MerkleTree.of(List.of(a, b)).root());
+		assertEquals(leafA, MerkleTree.of(List.of(a)).root());
+	}
+
+	@Test
+	public void interior_node_cannot_be_proven_as_leaf() {
+		List<HashCode> leaves = leaves(4);
+		MerkleTree tree = MerkleTree.of(leaves);
+		HashCode nodeAB = referenceRoot(leaves.subList(0, 2));
+		HashCode nodeCD = referenceRoot(leaves.subList(2, 4));
+		MerkleProof proof = MerkleProof.of(0, 2, List.of(nodeCD));
+
+		assertFalse(proof.verify(nodeAB, tree.root(), 4));
+		// Even trusting the size claimed by the proof, the leaf prefix keeps the node from matching
+		assertFalse(proof.verify(nodeAB, tree.root(), 2));
+	}
+
+	@Test
+	public void roots_match_reference_and_builder_for_all_small_sizes() {
+		for (int size = 1; size <= 40; size++) {
+			List<HashCode> leaves = leaves(size);
+			MerkleTree.Builder builder = MerkleTree.builder();
+			leaves.forEach(builder::add);
+
+			MerkleTree tree = MerkleTree.of(leaves);
+			assertEquals("size " + size, referenceRoot(leaves), tree.root());
+			assertEquals("size " + size, tree.root(), builder.build().root());
+			assertEquals(size, tree.size());
+		}
+	}
+
+	@Test
+	public void builder_can_continue_after_building() {
+		List<HashCode> leaves = leaves(7);
+		MerkleTree.Builder builder = MerkleTree.builder();
+		for (int i = 0; i < leaves.size(); i++) {
+			builder.add(leaves.get(i));
+			assertEquals(MerkleTree.of(leaves.subList(0, i + 1)).root(), builder.build().root());
+		}
+	}
+
+	@Test
+	public void proofs_of_every_leaf_verify_and_fail_for_other_leaves_and_roots() {
+		for (int size = 1; size <= 33; size++) {
+			List<HashCode> leaves = leaves(size);
+			MerkleTree tree = MerkleTree.of(leaves);
+			for (int i = 0; i < size; i++) {
+				MerkleProof proof = tree.proof(i);
+				assertTrue(proof.verify(leaves.get(i), tree.root(), size));
+				assertEquals(proof, MerkleProof.of(i, size, proof.siblings()));
+				assertFalse(proof.verify(leaves.get(i), tree.root(), size + 1));
+				assertFalse(proof.verify(HashUtils.random256(), tree.root(), size));
+				assertFalse(proof.verify(leaves.get(i), HashUtils.random256(), size));
+				if (size > 1) {
+					assertFalse(proof.verify(leaves.get((i + 1) % size), tree.root(), size));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void large_tree_built_in_parallel_matches_builder() {
+		List<HashCode> leaves = leaves(5_000);
+		MerkleTree.Builder builder = MerkleTree.builder();
+		leaves.forEach(builder::add);
+
+		MerkleTree tree = MerkleTree.of(leaves);
+		assertEquals(referenceRoot(leaves), tree.root());
+		assertEquals(tree.root(), builder.build().root());
+		assertTrue(tree.proof(4_321).verify(leaves.get(4_321), tree.root(), 5_000));
+	}
+
+	@Test
+	public void invalid_trees_and_proofs_are_rejected() {
+		assertThatThrownBy(() -> MerkleTree.of(List.of())).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MerkleTree.builder().build()).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> MerkleTree.of(List.of(HashCode.fromInt(1)))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MerkleTree.of(leaves(3)).proof(3)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> MerkleProof.of(3, 3, List.of())).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MerkleProof.of(0, 4, List.of(HashUtils.zero256()))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void equalsContract() {
+		EqualsVerifier.forClass(MerkleProof.class).verify();
+	}
+
+	private static List<HashCode> leaves(int size) {
+		return IntStream.range(0, size)
+			.mapToObj(i -> HashUtils.sha256(new byte[] {(byte) i, (byte) (i >>> 8)}))
+			.collect(Collectors.toList());
+	}
+
+	// Pairs nodes level by level, promoting any unpaired last node
+	private static HashCode referenceRoot(List<HashCode> leaves) {
+		List<HashCode> level = leaves.stream()
+			.map(leaf -> HashUtils.sha256(Bytes.concat(new byte[] {0}, leaf.asBytes())))
+			.collect(Collectors.toList());
+		while (level.size() > 1) {
+			List<HashCode> next = new ArrayList<>();
+			for (int i = 0; i + 1 < level.size(); i += 2) {
+				next.add(HashUtils.sha256(Bytes.concat(new byte[] {1}, level.get(i).asBytes(), level.get(i + 1).asBytes())));
+			}
+			if (level.size() % 2 == 1) {
+				next.add(level.get(level.size() - 1));
+			}
+			level = next;
+		}
+		return level.get(0);
+	}
+}
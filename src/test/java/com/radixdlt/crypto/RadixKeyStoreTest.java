@@ -38,7 +38,9 @@ import com.radixdlt.crypto.exception.PrivateKeyException;
 import com.radixdlt.crypto.exception.PublicKeyException;
 import org.bouncycastle.jcajce.PKCS12Key;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.powermock.reflect.Whitebox;
 
 import com.radixdlt.TestSetupUtils;
@@ -52,6 +54,9 @@ public class RadixKeyStoreTest {
 	private static final String TEST_SECRET = "secret";
 	private static final String TEST_KS_FILENAME = "testfile.ks";
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@BeforeClass
 	public static void setup() {
 		TestSetupUtils.installBouncyCastleProvider();
@@ -162,7 +167,7 @@ public class RadixKeyStoreTest {
 			ks.writeKeyPair(keyPairName, originalKeypair);
 		}
 
-		final File renamedFile = new File(TEST_KS_FILENAME);
+		final File renamedFile = new File(this.folder.getRoot(), TEST_KS_FILENAME);
 		file.renameTo(renamedFile);
 
 		try (RadixKeyStore ks = RadixKeyStore.fromFile(renamedFile, storePassword, false)) {
@@ -247,8 +252,8 @@ public class RadixKeyStoreTest {
 			.hasNoCause();
 	}
 
-	private static File newFile(String filename) throws IOException {
-		File file = new File(filename);
+	private File newFile(String filename) throws IOException {
+		File file = new File(this.folder.getRoot(), filename);
 		if (!Files.deleteIfExists(file.toPath())) {
 			// In this case we are fine if "file" does not exist and wasn't deleted.
 		}
@@ -16,6 +16,7 @@
  */
 package com.radixdlt.crypto;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -137,9 +138,23 @@ public class SHAHashHandlerTest {
 
 	private void testSha256(String charsToHash, byte[] bytesToCompare) {
 		assertEquals(32, bytesToCompare.length);
-		byte[] hashedBytes = hashHandler.hash256(charsToHash.getBytes(StandardCharsets.US_ASCII));
+		byte[] bytesToHash = charsToHash.getBytes(StandardCharsets.US_ASCII);
+		byte[] hashedBytes = hashHandler.hash256(bytesToHash);
 		assertEquals(32, hashedBytes.length);
 		assertArrayEquals(bytesToCompare, hashedBytes);
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytesToHash.length).put(bytesToHash).flip();
+		assertArrayEquals(bytesToCompare, hashHandler.hash256(direct));
+		assertEquals(0, direct.remaining());
+		assertArrayEquals(bytesToCompare, hashHandler.hash256(ByteBuffer.wrap(bytesToHash)));
+
+		// Split into an array part and a direct buffer part, hashing twice to check the hasher is reset
+		IncrementalHasher hasher = hashHandler.hasher256();
+		int split = bytesToHash.length / 3;
+		for (int i = 0; i < 2; i++) {
+			hasher.update(bytesToHash, 0, split).update(direct.position(split));
+			assertArrayEquals(bytesToCompare, hasher.hash().asBytes());
+		}
 	}
 
 	private void testSha512(String charsToHash, byte[] bytesToCompare) {
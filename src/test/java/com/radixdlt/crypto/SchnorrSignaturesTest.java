@@ -0,0 +1,255 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.utils.Bytes;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.BeforeClass;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.Test;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchnorrSignaturesTest {
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void equalsContract() {
+		EqualsVerifier.forClass(SchnorrSignature.class)
+			.suppress(Warning.NONFINAL_FIELDS) // serialization prevents us from making fields final.
+			.withIgnoredFields("serializer", "version")
+			.verify();
+		EqualsVerifier.forClass(SchnorrSignatures.class)
+			.suppress(Warning.NONFINAL_FIELDS) // serialization prevents us from making fields final.
+			.withIgnoredFields("serializer", "version")
+			.verify();
+	}
+
+	@Test
+	public void signatures_match_bip340_test_vectors() throws Exception {
+		// Test vectors 0 and 1 from https://github.com/bitcoin/bips/blob/master/bip-0340/test-vectors.csv
+		assertBip340Vector(
+			"0000000000000000000000000000000000000000000000000000000000000003",
+			"f9308a019258c31049344f85f89d5229b531c845836f99b08601f113bce036f9",
+			"0000000000000000000000000000000000000000000000000000000000000000",
+			"0000000000000000000000000000000000000000000000000000000000000000",
+			"e907831f80848d1069a5371b402410364bdf1c5f8307b0084c55f1ce2dca8215"
+				+ "25f66a4a85ea8b71e482a74f382d2ce5ebeee8fdb2172f477df4900d310536c0"
+		);
+		assertBip340Vector(
+			"b7e151628aed2a6abf7158809cf4f3c762e7160f38b4da56a784d9045190cfef",
+			"dff1d77f2a671c5f36183726db2341be58feae1da2deced843240f7b502ba659",
+			"0000000000000000000000000000000000000000000000000000000000000001",
+			"243f6a8885a308d313198a2e03707344a4093822299f31d0082efa98ec4e6c89",
+			"6896bd60eeae296db48a229ff71dfe071bde413e6d43f917dc8dcf8c78de3341"
+				+ "8906d11ac976abccb20b091292bff4ea897efcb639ea871cfa95f6de339e4b0a"
+		);
+	}
+
+	private static void assertBip340Vector(String privateKey, String xOnlyPublicKey, String auxRand, String message, String signature)
+		throws Exception {
+		ECKeyPair keyPair = ECKeyPair.fromPrivateKey(Bytes.fromHexString(privateKey));
+		SchnorrSignature actual = keyPair.schnorrSigner().sign(Bytes.fromHexString(message), Bytes.fromHexString(auxRand));
+
+		assertArrayEquals(Bytes.fromHexString(xOnlyPublicKey), keyPair.getPublicKey().getPublicPoint().getAffineXCoord().getEncoded());
+		assertEquals(signature, actual.toString());
+		assertTrue(keyPair.getPublicKey().verify(Bytes.fromHexString(message), actual));
+	}
+
+	// Verification only test vectors from https://github.com/bitcoin/bips/blob/master/bip-0340/test-vectors.csv,
+	// as {x-only public key, message, signature}.  Vector 4 is valid, vectors 6 to 13 are invalid.
+	private static final String[] BIP340_VECTOR_4 = {
+		"d69c3509bb99e412e68b0fe8544e72837dfa30746d8be2aa65975f29d22dc7b9",
+		"4df3c3f68fcc83b27e9d42c90431a72499f17875c81a599b566c9889b9696703",
+		"00000000000000000000003b78ce563f89a0ed9414f5aa28ad0d96d6795f9c63"
+			+ "76afb1548af603b3eb45c9f8207dee1060cb71c04e80f593060b07d28308d7f4"
+	};
+	private static final String BIP340_PUBLIC_KEY = "dff1d77f2a671c5f36183726db2341be58feae1da2deced843240f7b502ba659";
+	private static final String BIP340_MESSAGE = "243f6a8885a308d313198a2e03707344a4093822299f31d0082efa98ec4e6c89";
+	private static final String[][] BIP340_INVALID_SIGNATURES = {
+		// 6: has_even_y(R) is false
+		{"fff97bd5755eeea420453a14355235d382f6472f8568a18b2f057a1460297556"
+			+ "3cc27944640ac607cd107ae10923d9ef7a73c643e166be5ebeafa34b1ac553e2"},
+		// 7: negated message
+		{"1fa62e331edbc21c394792d2ab1100a7b432b013df3f6ff4f99fcb33e0e1515f"
+			+ "28890b3edb6e7189b630448b515ce4f8622a954cfe545735aaea5134fccdb2bd"},
+		// 8: negated s value
+		{"6cff5c3ba86c69ea4b7376f31a9bcb4f74c1976089b2d9963da2e5543e177769"
+			+ "961764b3aa9b2ffcb6ef947b6887a226e8d7c93e00c5ed0c1834ff0d0c2e6da6"},
+		// 9: sG - eP is infinite, and x(inf) taken as 0
+		{"0000000000000000000000000000000000000000000000000000000000000000"
+			+ "123dda8328af9c23a94c1feecfd123ba4fb73476f0d594dcb65c6425bd186051"},
+		// 10: sG - eP is infinite, and x(inf) taken as 1
+		{"0000000000000000000000000000000000000000000000000000000000000001"
+			+ "7615fbaf5ae28864013c099742deadb4dba87f11ac6754f93780d5a1837cf197"},
+		// 11: sig[0:32] is not an X coordinate on the curve
+		{"4a298dacae57395a15d0795ddbfd1dcb564da82b0f269bc70a74f8220429ba1d"
+			+ "69e89b4c5564d00349106b8497785dd7d1d713a8ae82b32fa79d5f7fc407d39b"},
+		// 12: sig[0:32] is equal to field size
+		{"fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc2f"
+			+ "69e89b4c5564d00349106b8497785dd7d1d713a8ae82b32fa79d5f7fc407d39b"},
+		// 13: sig[32:64] is equal to curve order
+		{"6cff5c3ba86c69ea4b7376f31a9bcb4f74c1976089b2d9963da2e5543e177769"
+			+ "fffffffffffffffffffffffffffffffebaaedce6af48a03bbfd25e8cd0364141"},
+	};
+
+	@Test
+	public void verification_matches_bip340_test_vectors() throws Exception {
+		assertTrue(Schnorr.verify(hex(BIP340_VECTOR_4[1]), liftX(BIP340_VECTOR_4[0]), hex(BIP340_VECTOR_4[2])));
+		ECPublicKey publicKey = ECPublicKey.fromBytes(Bytes.fromHexString("02" + BIP340_PUBLIC_KEY));
+		for (String[] vector : BIP340_INVALID_SIGNATURES) {
+			byte[] signature = hex(vector[0]);
+			assertFalse(vector[0], Schnorr.verify(hex(BIP340_MESSAGE), liftX(BIP340_PUBLIC_KEY), signature));
+			assertFalse(vector[0], publicKey.verify(hex(BIP340_MESSAGE), SchnorrSignature.from(signature)));
+		}
+	}
+
+	@Test
+	public void batch_verification_matches_bip340_test_vectors() {
+		SecureRandom random = new SecureRandom();
+		byte[] validMessage = hex(BIP340_VECTOR_4[1]);
+		ECPoint validKey = liftX(BIP340_VECTOR_4[0]);
+		byte[] validSignature = hex(BIP340_VECTOR_4[2]);
+		// Vector 1, which is valid
+		byte[] signature1 = hex("6896bd60eeae296db48a229ff71dfe071bde413e6d43f917dc8dcf8c78de3341"
+			+ "8906d11ac976abccb20b091292bff4ea897efcb639ea871cfa95f6de339e4b0a");
+
+		assertTrue(Schnorr.verifyBatch(
+			List.of(validMessage, hex(BIP340_MESSAGE)), List.of(validKey, liftX(BIP340_PUBLIC_KEY)), List.of(validSignature, signature1), random
+		));
+		for (String[] vector : BIP340_INVALID_SIGNATURES) {
+			byte[] signature = hex(vector[0]);
+			// Invalid signature both first, with a fixed coefficient, and later, with a random coefficient
+			assertFalse(vector[0], Schnorr.verifyBatch(
+				List.of(hex(BIP340_MESSAGE), validMessage), List.of(liftX(BIP340_PUBLIC_KEY), validKey), List.of(signature, validSignature), random
+			));
+			assertFalse(vector[0], Schnorr.verifyBatch(
+				List.of(validMessage, hex(BIP340_MESSAGE)), List.of(validKey, liftX(BIP340_PUBLIC_KEY)), List.of(validSignature, signature), random
+			));
+		}
+	}
+
+	@Test
+	public void bip340_public_keys_not_on_the_curve_cannot_be_decoded() {
+		// Vector 5: public key not on the curve
+		assertThatThrownBy(() -> liftX("eefdea4cdb677750a420fee807eacf21eb9898ae79b9768766e4faa04a2d4a34"))
+			.isInstanceOf(IllegalArgumentException.class);
+		// Vector 14: public key is not a valid X coordinate because it exceeds the field size
+		assertThatThrownBy(() -> liftX("fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc30"))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static ECPoint liftX(String xOnlyPublicKey) {
+		return ECKeyUtils.domain().getCurve().decodePoint(hex("02" + xOnlyPublicKey));
+	}
+
+	private static byte[] hex(String hex) {
+		return Bytes.fromHexString(hex);
+	}
+
+	@Test
+	public void tampered_signatures_are_rejected() {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		HashCode hash = HashUtils.random256();
+		byte[] signature = keyPair.schnorrSigner().sign(hash).toByteArray();
+
+		assertTrue(keyPair.getPublicKey().verify(hash, SchnorrSignature.from(signature)));
+		assertFalse(keyPair.getPublicKey().verify(HashUtils.random256(), SchnorrSignature.from(signature)));
+		assertFalse(ECKeyPair.generateNew().getPublicKey().verify(hash, SchnorrSignature.from(signature)));
+		signature[SchnorrSignature.BYTES - 1] ^= 1;
+		assertFalse(keyPair.getPublicKey().verify(hash, SchnorrSignature.from(signature)));
+		assertThatThrownBy(() -> SchnorrSignature.from(new byte[SchnorrSignature.BYTES - 1]))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void batch_verification_accepts_valid_and_identifies_invalid_signatures() {
+		HashCode hash = HashUtils.random256();
+		List<ECKeyPair> keyPairs = IntStream.range(0, 20).mapToObj(i -> ECKeyPair.generateNew()).collect(Collectors.toList());
+		ImmutableMap<ECPublicKey, SchnorrSignature> valid = keyPairs.stream()
+			.collect(ImmutableMap.toImmutableMap(ECKeyPair::getPublicKey, k -> k.schnorrSigner().sign(hash)));
+		SchnorrSignatures signatures = new SchnorrSignatures(valid);
+
+		assertEquals(SignatureScheme.SCHNORR, signatures.signatureScheme());
+		assertThat(signatures.signedMessage(hash)).containsExactlyInAnyOrderElementsOf(valid.keySet());
+		assertTrue(signatures.isSignedByAll(hash));
+		assertTrue(signatures.isSignedByAtLeast(hash, 20));
+		assertFalse(signatures.isSignedByAtLeast(hash, 21));
+
+		// Replace one signature with a signature over a different hash
+		ECKeyPair invalidSigner = keyPairs.get(7);
+		Signatures withInvalid = keyPairs.stream()
+			.filter(k -> k != invalidSigner)
+			.reduce((Signatures) new SchnorrSignatures(), (s, k) -> s.concatenate(k.getPublicKey(), valid.get(k.getPublicKey())), (a, b) -> a)
+			.concatenate(invalidSigner.getPublicKey(), invalidSigner.schnorrSigner().sign(HashUtils.random256()));
+
+		assertEquals(19, withInvalid.signedMessage(hash).size());
+		assertFalse(withInvalid.signedMessage(hash).contains(invalidSigner.getPublicKey()));
+		assertFalse(withInvalid.isSignedByAll(hash));
+		assertTrue(withInvalid.isSignedByAtLeast(hash, 19));
+		assertTrue(withInvalid.isSignedByAtLeast(hash, ImmutableSet.of(keyPairs.get(0).getPublicKey()), 1));
+		assertFalse(withInvalid.isSignedByAtLeast(hash, ImmutableSet.of(invalidSigner.getPublicKey()), 1));
+	}
+
+	@Test
+	public void negated_key_cannot_be_counted_as_another_signer() throws Exception {
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		HashCode hash = HashUtils.random256();
+		SchnorrSignature signature = keyPair.schnorrSigner().sign(hash);
+		ECPublicKey negated = ECPublicKey.fromBytes(keyPair.getPublicKey().getPublicPoint().negate().getEncoded(true));
+		SchnorrSignatures signatures = new SchnorrSignatures(keyPair.getPublicKey(), signature);
+
+		// BIP-340 verification only uses the X coordinate, so the signature is valid for both keys
+		assertTrue(negated.verify(hash, signature));
+		assertThatThrownBy(() -> signatures.concatenate(negated, signature))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SchnorrSignatures(ImmutableMap.of(keyPair.getPublicKey(), signature, negated, signature)))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertTrue(signatures.isSignedByAtLeast(hash, 1));
+		assertFalse(signatures.isSignedByAtLeast(hash, 2));
+	}
+
+	@Test
+	public void signer_produces_only_schnorr_signatures() {
+		SchnorrSigner signer = ECKeyPair.generateNew().schnorrSigner();
+
+		assertTrue(signer.canProduceSignatureForScheme(SignatureScheme.SCHNORR));
+		assertFalse(signer.canProduceSignatureForScheme(SignatureScheme.ECDSA));
+		assertThatThrownBy(() -> new SchnorrSignatures().concatenate(signer.getPublicKey(), new ECDSASignature()))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -1,17 +1,25 @@
 package com.radixdlt.crypto;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -128,6 +136,53 @@ public class SignaturesTest {
         }
     }
 
+    @Test
+    public void verify_that_parallel_signed_message_matches_sequential() {
+        HashCode hashedMessage = hashOfMessage("Trust, but verify");
+        ImmutableMap.Builder<ECPublicKey, ECDSASignature> builder = ImmutableMap.builder();
+        for (int i = 0; i < 64; i++) {
+            ECKeyPair keyPair = ECKeyPair.generateNew();
+            builder.put(keyPair.getPublicKey(), i % 3 == 0 ? randomInvalidSignature() : keyPair.sign(hashedMessage));
+        }
+        ECDSASignatures signatures = new ECDSASignatures(builder.build());
+
+        List<ECPublicKey> sequential = signatures.signedMessage(hashedMessage);
+        assertEquals(42, sequential.size());
+        assertEquals(sequential, signatures.signedMessage(hashedMessage, ForkJoinPool.commonPool()));
+        assertEquals(sequential, signatures.signedMessage(hashedMessage, MoreExecutors.directExecutor()));
+    }
+
+    @Test
+    public void verify_that_only_specified_signers_count_towards_threshold() {
+        HashCode hashedMessage = hashOfMessage("Count me in");
+        ECKeyPair included = ECKeyPair.generateNew();
+        ECKeyPair excluded = ECKeyPair.generateNew();
+        ECKeyPair invalid = ECKeyPair.generateNew();
+        Signatures signatures = new ECDSASignatures(ImmutableMap.of(
+                included.getPublicKey(), included.sign(hashedMessage),
+                excluded.getPublicKey(), excluded.sign(hashedMessage),
+                invalid.getPublicKey(), randomInvalidSignature()
+        ));
+        Set<ECPublicKey> signers = ImmutableSet.of(included.getPublicKey(), invalid.getPublicKey());
+
+        assertTrue(signatures.isSignedByAtLeast(hashedMessage, 2));
+        assertTrue(signatures.isSignedByAtLeast(hashedMessage, signers, 1));
+        assertFalse(signatures.isSignedByAtLeast(hashedMessage, signers, 2));
+        assertFalse(signatures.isSignedByAll(hashedMessage));
+    }
+
+    @Test
+    public void verify_that_batch_verification_rejects_mismatched_sizes() {
+        ECKeyPair keyPair = ECKeyPair.generateNew();
+        byte[] hash = hashOfMessage("Fubar").asBytes();
+        assertThatThrownBy(() -> ECKeyUtils.keyHandler.verify(
+                ImmutableList.of(hash, hash),
+                ImmutableList.of(keyPair.sign(hash)),
+                ImmutableList.of(keyPair.getPublicKey()),
+                MoreExecutors.directExecutor()
+        )).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void well_formatted_tostring() {
         Signature dummySignature = randomInvalidSignature();
@@ -169,6 +224,12 @@ public class SignaturesTest {
         assertEquals((numberOfInvalidSignaturesToCreate + numberOfValidSignaturesToCreate), signatures.count());
         boolean doesSignatureMeetValidityThreshold = signatures.signedMessage(hashedMessage).size() >= thresholdNumberOfValidSignatures;
         assertEquals(isExpectedToMeetThreshold, doesSignatureMeetValidityThreshold);
+        assertEquals(isExpectedToMeetThreshold, signatures.isSignedByAtLeast(hashedMessage, thresholdNumberOfValidSignatures));
+        assertEquals(
+                isExpectedToMeetThreshold,
+                ((ECDSASignatures) signatures).isSignedByAtLeast(hashedMessage, thresholdNumberOfValidSignatures, ForkJoinPool.commonPool())
+        );
+        assertEquals(numberOfInvalidSignaturesToCreate == 0, signatures.isSignedByAll(hashedMessage));
     }
 
     private ECPublicKey publicKey() {
@@ -0,0 +1,161 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.exception.ECIESException;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ECIESSessionsTest {
+	// magic + version + key length + key
+	private static final int SESSION_ID_OFFSET = 4 + 1 + 1 + 33;
+
+	private final byte[] message = "Hello World".getBytes(StandardCharsets.UTF_8);
+	private ECKeyPair alice;
+	private ECKeyPair bob;
+	private ECIESSessions aliceSessions;
+	private ECIESSessions bobSessions;
+
+	@BeforeClass
+	public static void setupBouncyCastle() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Before
+	public void setUp() {
+		this.alice = ECKeyPair.generateNew();
+		this.bob = ECKeyPair.generateNew();
+		this.aliceSessions = new ECIESSessions(this.alice, ECIESMode.AES_GCM, 1, Duration.ofMinutes(10));
+		this.bobSessions = new ECIESSessions(this.bob, ECIESMode.CHACHA20_POLY1305, 10, Duration.ofMinutes(10));
+	}
+
+	@Test
+	public void messages_in_a_session_are_decrypted_with_one_key_agreement() throws ECIESException {
+		for (int i = 0; i < 5; i++) {
+			byte[] encrypted = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+			assertArrayEquals(this.message, this.bobSessions.decrypt(encrypted));
+		}
+
+		assertEquals(1, this.aliceSessions.outgoingStats().loadCount());
+		assertEquals(4, this.aliceSessions.outgoingStats().hitCount());
+		assertEquals(1, this.bobSessions.incomingStats().missCount());
+		assertEquals(4, this.bobSessions.incomingStats().hitCount());
+	}
+
+	@Test
+	public void messages_in_a_session_use_distinct_nonces() throws ECIESException {
+		byte[] first = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+		byte[] second = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+
+		assertArrayEquals(sessionId(first), sessionId(second));
+		assertFalse(Arrays.equals(first, second));
+	}
+
+	@Test
+	public void evicted_session_is_replaced_by_a_new_one_using_the_same_shared_secret() throws ECIESException {
+		ECKeyPair carol = ECKeyPair.generateNew();
+		byte[] first = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+		// Capacity is one, so this evicts the session with bob
+		this.aliceSessions.encrypt(this.message, carol.getPublicKey());
+		byte[] second = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+
+		assertFalse(Arrays.equals(sessionId(first), sessionId(second)));
+		assertArrayEquals(this.message, this.bobSessions.decrypt(first));
+		assertArrayEquals(this.message, this.bobSessions.decrypt(second));
+		assertEquals(1, this.bobSessions.incomingStats().missCount());
+		assertEquals(1, this.bobSessions.incomingStats().hitCount());
+	}
+
+	@Test
+	public void shared_secret_is_not_cached_for_unauthenticated_data() throws ECIESException {
+		byte[] encrypted = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+		byte[] forged = encrypted.clone();
+		forged[SESSION_ID_OFFSET] ^= 1;
+
+		assertThatThrownBy(() -> this.bobSessions.decrypt(forged))
+			.isInstanceOf(ECIESException.class);
+		assertArrayEquals(this.message, this.bobSessions.decrypt(encrypted));
+		assertArrayEquals(this.message, this.bobSessions.decrypt(encrypted));
+
+		// The forged message is a miss, but does not add the secret, so the first authentic one misses too
+		assertEquals(2, this.bobSessions.incomingStats().missCount());
+		assertEquals(1, this.bobSessions.incomingStats().hitCount());
+	}
+
+	@Test
+	public void replies_use_the_receivers_mode() throws ECIESException {
+		this.bobSessions.decrypt(this.aliceSessions.encrypt(this.message, this.bob.getPublicKey()));
+
+		byte[] reply = this.bobSessions.encrypt(this.message, this.alice.getPublicKey());
+
+		assertArrayEquals(this.message, this.aliceSessions.decrypt(reply));
+	}
+
+	@Test
+	public void ecies_data_in_any_mode_is_decrypted() throws ECIESException {
+		for (ECIESMode mode : ECIESMode.values()) {
+			byte[] encrypted = ECIES.encrypt(this.message, this.bob.getPublicKey(), mode);
+			assertArrayEquals(this.message, this.bobSessions.decrypt(encrypted));
+		}
+	}
+
+	@Test
+	public void tampered_session_data_is_rejected() throws ECIESException {
+		byte[] encrypted = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+		for (int i = SESSION_ID_OFFSET; i < encrypted.length; i++) {
+			byte[] tampered = encrypted.clone();
+			tampered[i] ^= 1;
+			assertThatThrownBy(() -> this.bobSessions.decrypt(tampered))
+				.isInstanceOf(ECIESException.class);
+		}
+	}
+
+	@Test
+	public void session_data_for_another_key_is_rejected() throws ECIESException {
+		ECKeyPair carol = ECKeyPair.generateNew();
+		ECIESSessions carolSessions = new ECIESSessions(carol, ECIESMode.AES_GCM, 10, Duration.ofMinutes(10));
+
+		byte[] encrypted = this.aliceSessions.encrypt(this.message, this.bob.getPublicKey());
+
+		assertThatThrownBy(() -> carolSessions.decrypt(encrypted))
+			.isInstanceOf(ECIESException.class);
+	}
+
+	@Test
+	public void non_aead_mode_is_rejected() {
+		assertThatThrownBy(() -> new ECIESSessions(this.alice, ECIESMode.AES_CBC_HMAC_SHA256, 10, Duration.ofMinutes(10)))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static byte[] sessionId(byte[] encrypted) {
+		return Arrays.copyOfRange(encrypted, SESSION_ID_OFFSET, SESSION_ID_OFFSET + 16);
+	}
+}
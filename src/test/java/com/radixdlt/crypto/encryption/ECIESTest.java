@@ -20,13 +20,22 @@ package com.radixdlt.crypto.encryption;
 import com.radixdlt.TestSetupUtils;
 import com.radixdlt.crypto.ECKeyPair;
 import com.radixdlt.crypto.exception.ECIESException;
+import com.radixdlt.crypto.exception.MacMismatchException;
 import com.radixdlt.crypto.exception.PrivateKeyException;
 import com.radixdlt.crypto.exception.PublicKeyException;
 import com.radixdlt.utils.Bytes;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -44,6 +53,11 @@ public class ECIESTest {
 	private final ECKeyPair testEphemeralKey  = createTestKey(this.testEphemeralKeyHex);
 	private final String testEncryptionKeyHex = "aac4c70a ee652996 5b496373 aba40e55 85b133e1 cde28854 b59ca9a0 4c6d237d";
 	private final ECKeyPair testEncryptionKey = createTestKey(this.testEncryptionKeyHex);
+	// "abc" encrypted with the test keys and nonce 000102...0b, cross-checked against the JDK's AES/GCM
+	private static final String AES_GCM_ABC_HEX =
+		  "ec49455301 21 02fb5a2ca482d9db1a33a729119777c5f3531bf3ef11c0acd8dfcb0349f50a3c50 000102030405060708090a0b"
+		+ "107739 b6bd5b7052c46fc145068a3bfa019d92";
+
 	private final byte[] testIV = new byte[] {
 		0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f
 	};
@@ -122,6 +136,151 @@ public class ECIESTest {
 		);
 	}
 
+	@Test
+	public void streamed_data_spanning_many_chunks_round_trips_with_array_based_methods() throws ECIESException {
+		byte[] data = new byte[100_000];
+		new Random(1).nextBytes(data);
+
+		ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+		ECIES.encrypt(new ByteArrayInputStream(data), data.length, encrypted, this.testEncryptionKey.getPublicKey());
+		assertArrayEquals(data, ECIES.decrypt(encrypted.toByteArray(), this.testEncryptionKey));
+
+		ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+		ECIES.decrypt(
+			new ByteArrayInputStream(ECIES.encrypt(data, this.testEncryptionKey.getPublicKey())), decrypted, this.testEncryptionKey
+		);
+		assertArrayEquals(data, decrypted.toByteArray());
+	}
+
+	@Test
+	public void streamed_decryption_of_tampered_data_fails_without_output() throws ECIESException {
+		byte[] encrypted = ECIES.encrypt(new byte[100_000], this.testEncryptionKey.getPublicKey());
+		encrypted[encrypted.length - 100] ^= 1;
+		ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+
+		assertThatThrownBy(() -> ECIES.decrypt(new ByteArrayInputStream(encrypted), decrypted, this.testEncryptionKey))
+			.isInstanceOf(ECIESException.class)
+			.hasCauseInstanceOf(MacMismatchException.class);
+		assertEquals(0, decrypted.size());
+	}
+
+	@Test
+	public void streamed_encryption_of_short_input_fails() {
+		assertThatThrownBy(() -> ECIES.encrypt(
+			new ByteArrayInputStream(new byte[10]), 11, new ByteArrayOutputStream(), this.testEncryptionKey.getPublicKey()
+		)).isInstanceOf(ECIESException.class);
+	}
+
+	@Test
+	public void aead_modes_round_trip() throws ECIESException {
+		for (ECIESMode mode : ECIESMode.values()) {
+			for (int length : new int[] {0, 1, 1_000}) {
+				byte[] data = new byte[length];
+				new Random(length).nextBytes(data);
+
+				byte[] encrypted = ECIES.encrypt(data, this.testEncryptionKey.getPublicKey(), mode);
+
+				assertArrayEquals(mode + " " + length, data, ECIES.decrypt(encrypted, this.testEncryptionKey));
+			}
+		}
+	}
+
+	@Test
+	public void aead_encryption_adds_only_header_and_tag() throws ECIESException {
+		byte[] encrypted = ECIES.encrypt(new byte[100], this.testEncryptionKey.getPublicKey(), ECIESMode.AES_GCM);
+
+		// magic + version + key length + key + nonce + data + tag
+		assertEquals(4 + 1 + 1 + 33 + 12 + 100 + 16, encrypted.length);
+	}
+
+	@Test
+	public void aes_gcm_test_vector() throws ECIESException {
+		byte[] encrypted = ECIES.encrypt(
+			"abc".getBytes(StandardCharsets.US_ASCII),
+			this.testEncryptionKey.getPublicKey().getPublicPoint(),
+			this.testEphemeralKey,
+			Arrays.copyOf(this.testIV, 12),
+			ECIESMode.AES_GCM
+		);
+
+		assertArrayEquals(fromHex(AES_GCM_ABC_HEX), encrypted);
+	}
+
+	@Test
+	public void tampering_with_any_part_of_aead_data_is_detected() throws ECIESException {
+		for (ECIESMode mode : new ECIESMode[] {ECIESMode.AES_GCM, ECIESMode.CHACHA20_POLY1305}) {
+			byte[] encrypted = ECIES.encrypt(new byte[32], this.testEncryptionKey.getPublicKey(), mode);
+			// Skip the magic, version and key, which fail in other ways
+			for (int i = 4 + 1 + 1 + 33; i < encrypted.length; i++) {
+				byte[] tampered = encrypted.clone();
+				tampered[i] ^= 1;
+				assertThatThrownBy(() -> ECIES.decrypt(tampered, this.testEncryptionKey))
+					.isInstanceOf(ECIESException.class);
+			}
+		}
+	}
+
+	@Test
+	public void legacy_data_that_looks_like_aead_data_is_decrypted() throws ECIESException {
+		byte[] iv = this.testIV.clone();
+		System.arraycopy(new byte[] {(byte) 0xEC, 'I', 'E', 'S', 1}, 0, iv, 0, 5);
+		byte[] data = "abc".getBytes(StandardCharsets.US_ASCII);
+
+		byte[] encrypted = ECIES.encrypt(data, this.testEncryptionKey.getPublicKey().getPublicPoint(), this.testEphemeralKey, iv);
+
+		assertArrayEquals(data, ECIES.decrypt(encrypted, this.testEncryptionKey));
+	}
+
+	@Test
+	public void byte_buffers_round_trip_whether_heap_or_direct() throws ECIESException {
+		byte[] data = new byte[20_000];
+		new Random(2).nextBytes(data);
+		for (boolean direct : new boolean[] {false, true}) {
+			ByteBuffer plaintext = allocate(data.length, direct).put(data).flip();
+			ByteBuffer encrypted = allocate(ECIES.encryptedSize(data.length), direct);
+			ECIES.encrypt(plaintext, this.testEncryptionKey.getPublicKey(), encrypted);
+			assertEquals(0, plaintext.remaining());
+			assertEquals(0, encrypted.remaining());
+
+			ByteBuffer decrypted = allocate(encrypted.capacity(), direct);
+			ECIES.decrypt(encrypted.flip(), this.testEncryptionKey, decrypted);
+			assertEquals(0, encrypted.remaining());
+
+			byte[] result = new byte[decrypted.flip().remaining()];
+			decrypted.get(result);
+			assertArrayEquals(data, result);
+		}
+	}
+
+	@Test
+	public void byte_buffer_encryption_into_too_small_buffer_fails_without_writing() {
+		ByteBuffer plaintext = ByteBuffer.wrap(new byte[100]);
+		ByteBuffer encrypted = ByteBuffer.allocate(ECIES.encryptedSize(100) - 1);
+
+		assertThatThrownBy(() -> ECIES.encrypt(plaintext, this.testEncryptionKey.getPublicKey(), encrypted))
+			.isInstanceOf(ECIESException.class);
+		assertEquals(100, plaintext.remaining());
+		assertEquals(0, encrypted.position());
+	}
+
+	@Test
+	public void byte_buffer_decryption_of_tampered_data_fails_without_writing() throws ECIESException {
+		byte[] encrypted = ECIES.encrypt(new byte[1_000], this.testEncryptionKey.getPublicKey());
+		encrypted[encrypted.length - 100] ^= 1;
+		ByteBuffer ciphertext = ByteBuffer.wrap(encrypted);
+		ByteBuffer plaintext = ByteBuffer.allocate(encrypted.length);
+
+		assertThatThrownBy(() -> ECIES.decrypt(ciphertext, this.testEncryptionKey, plaintext))
+			.isInstanceOf(ECIESException.class)
+			.hasCauseInstanceOf(MacMismatchException.class);
+		assertEquals(0, ciphertext.position());
+		assertEquals(0, plaintext.position());
+	}
+
+	private static ByteBuffer allocate(int capacity, boolean direct) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
 	private void testEcies(String stringToEncrypt, String hexToCompare) throws ECIESException {
 		byte[] bytesToCompare = fromHex(hexToCompare);
 		byte[] bytesToEncrypt = stringToEncrypt.getBytes(StandardCharsets.US_ASCII);
@@ -134,6 +293,20 @@ public class ECIESTest {
 		assertArrayEquals(encrypted, bytesToCompare);
 		byte[] decrypted = ECIES.decrypt(encrypted, this.testEncryptionKey);
 		assertArrayEquals(decrypted, bytesToEncrypt);
+
+		ByteArrayOutputStream streamEncrypted = new ByteArrayOutputStream();
+		ECIES.encrypt(
+			Channels.newChannel(new ByteArrayInputStream(bytesToEncrypt)),
+			bytesToEncrypt.length,
+			Channels.newChannel(streamEncrypted),
+			this.testEncryptionKey.getPublicKey().getPublicPoint(),
+			this.testEphemeralKey,
+			this.testIV
+		);
+		assertArrayEquals(bytesToCompare, streamEncrypted.toByteArray());
+		ByteArrayOutputStream streamDecrypted = new ByteArrayOutputStream();
+		ECIES.decrypt(new ByteArrayInputStream(encrypted), streamDecrypted, this.testEncryptionKey);
+		assertArrayEquals(bytesToEncrypt, streamDecrypted.toByteArray());
 	}
 
 	private static byte[] fromHex(String hex) {
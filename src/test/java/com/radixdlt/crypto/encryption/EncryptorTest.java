@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.crypto.exception.EncryptorException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EncryptorTest {
+	private final byte[] message = "Hello World".getBytes(StandardCharsets.UTF_8);
+
+	@BeforeClass
+	public static void setupBouncyCastle() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void every_reader_can_decrypt_with_protectors_built_in_parallel() throws Exception {
+		List<ECKeyPair> readers = readers(40);
+		ECKeyPair sharedKey = ECKeyPair.generateNew();
+		Encryptor.EncryptorBuilder builder = new Encryptor.EncryptorBuilder().sharedKey(sharedKey);
+		readers.forEach(reader -> builder.addReader(reader.getPublicKey()));
+
+		Encryptor encryptor = builder.build();
+		byte[] encrypted = sharedKey.getPublicKey().encrypt(this.message);
+
+		List<EncryptedPrivateKey> protectors = encryptor.getProtectors();
+		assertEquals(readers.size(), protectors.size());
+		for (int i = 0; i < readers.size(); i++) {
+			ECPublicKey reader = readers.get(i).getPublicKey();
+			assertArrayEquals(EncryptedPrivateKey.recipientHint(reader), protectors.get(i).getRecipientHint().orElseThrow());
+			assertArrayEquals(this.message, encryptor.decrypt(encrypted, readers.get(i)));
+		}
+	}
+
+	@Test
+	public void protector_is_only_possibly_for_its_reader() {
+		List<ECKeyPair> readers = readers(2);
+		EncryptedPrivateKey protector = ECKeyPair.generateNew().encryptPrivateKeyWithPublicKey(readers.get(0).getPublicKey());
+
+		assertTrue(protector.mayBeFor(readers.get(0).getPublicKey()));
+		assertFalse(protector.mayBeFor(readers.get(1).getPublicKey()));
+	}
+
+	@Test
+	public void every_reader_can_decrypt_with_round_tripped_protectors() throws Exception {
+		List<ECKeyPair> readers = readers(5);
+		ECKeyPair sharedKey = ECKeyPair.generateNew();
+		Encryptor.EncryptorBuilder builder = new Encryptor.EncryptorBuilder().sharedKey(sharedKey);
+		readers.forEach(reader -> builder.addReader(reader.getPublicKey()));
+		byte[] encrypted = sharedKey.getPublicKey().encrypt(this.message);
+
+		List<EncryptedPrivateKey> protectors = builder.build().getProtectors().stream()
+			.map(protector -> EncryptedPrivateKey.fromBase64(protector.base64(), protector.getRecipientHint().orElse(null)))
+			.collect(Collectors.toList());
+		Encryptor encryptor = new Encryptor(protectors);
+
+		for (int i = 0; i < readers.size(); i++) {
+			ECPublicKey reader = readers.get(i).getPublicKey();
+			assertArrayEquals(EncryptedPrivateKey.recipientHint(reader), protectors.get(i).getRecipientHint().orElseThrow());
+			assertFalse(protectors.get(i).mayBeFor(readers.get((i + 1) % readers.size()).getPublicKey()));
+			assertArrayEquals(this.message, encryptor.decrypt(encrypted, readers.get(i)));
+		}
+	}
+
+	@Test
+	public void every_reader_can_decrypt_with_protectors_round_tripped_without_hints() throws Exception {
+		List<ECKeyPair> readers = readers(3);
+		ECKeyPair sharedKey = ECKeyPair.generateNew();
+		Encryptor.EncryptorBuilder builder = new Encryptor.EncryptorBuilder().sharedKey(sharedKey);
+		readers.forEach(reader -> builder.addReader(reader.getPublicKey()));
+		byte[] encrypted = sharedKey.getPublicKey().encrypt(this.message);
+
+		List<EncryptedPrivateKey> protectors = builder.build().getProtectors().stream()
+			.map(protector -> EncryptedPrivateKey.fromBase64(protector.base64()))
+			.collect(Collectors.toList());
+		Encryptor encryptor = new Encryptor(protectors);
+
+		for (ECKeyPair reader : readers) {
+			assertArrayEquals(this.message, encryptor.decrypt(encrypted, reader));
+		}
+	}
+
+	@Test
+	public void protectors_without_hints_are_still_tried() throws Exception {
+		List<ECKeyPair> readers = readers(3);
+		ECKeyPair sharedKey = ECKeyPair.generateNew();
+		List<EncryptedPrivateKey> protectors = readers.stream()
+			.map(reader -> new EncryptedPrivateKey(sharedKey.encryptPrivateKeyWithPublicKey(reader.getPublicKey()).toByteArray()))
+			.collect(Collectors.toList());
+		Encryptor encryptor = new Encryptor(protectors);
+		byte[] encrypted = sharedKey.getPublicKey().encrypt(this.message);
+
+		assertTrue(protectors.get(0).mayBeFor(readers.get(1).getPublicKey()));
+		for (ECKeyPair reader : readers) {
+			assertArrayEquals(this.message, encryptor.decrypt(encrypted, reader));
+		}
+	}
+
+	@Test
+	public void non_reader_cannot_decrypt() throws Exception {
+		ECKeyPair sharedKey = ECKeyPair.generateNew();
+		Encryptor encryptor = new Encryptor.EncryptorBuilder()
+			.sharedKey(sharedKey)
+			.addReader(readers(1).get(0).getPublicKey())
+			.build();
+		byte[] encrypted = sharedKey.getPublicKey().encrypt(this.message);
+
+		assertThatThrownBy(() -> encryptor.decrypt(encrypted, ECKeyPair.fromSeed(new byte[] {42})))
+			.isInstanceOf(EncryptorException.class);
+	}
+
+	@Test
+	public void recipient_hint_must_have_the_right_size() {
+		assertThatThrownBy(() -> new EncryptedPrivateKey(new byte[0], new byte[EncryptedPrivateKey.RECIPIENT_HINT_BYTES + 1]))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// Seeded, so that hints are known not to collide
+	private static List<ECKeyPair> readers(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> ECKeyPair.fromSeed(new byte[] {(byte) i, 1}))
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+
+package com.radixdlt.crypto.encryption;
+
+import com.google.common.primitives.Ints;
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECKeyPair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class EphemeralKeyPoolTest {
+	@BeforeClass
+	public static void setupBouncyCastle() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void pool_is_filled_up_to_capacity() throws InterruptedException {
+		try (EphemeralKeyPool pool = EphemeralKeyPool.start(4, countingGenerator(new AtomicInteger()))) {
+			await(() -> pool.stats().refillCount() == 4);
+
+			EphemeralKeyPool.Stats stats = pool.stats();
+			assertEquals(4, stats.size());
+			assertEquals(4, stats.capacity());
+			assertEquals(4, stats.refillCount());
+			assertEquals(0, stats.hitCount());
+			assertEquals(0, stats.missCount());
+		}
+	}
+
+	@Test
+	public void taking_from_a_full_pool_is_a_hit_and_triggers_a_refill() throws InterruptedException {
+		try (EphemeralKeyPool pool = EphemeralKeyPool.start(2, countingGenerator(new AtomicInteger()))) {
+			await(() -> pool.stats().refillCount() == 2);
+			pool.take();
+			await(() -> pool.stats().refillCount() == 3);
+
+			EphemeralKeyPool.Stats stats = pool.stats();
+			assertEquals(1, stats.hitCount());
+			assertEquals(2, stats.size());
+		}
+	}
+
+	@Test
+	public void taking_from_a_closed_pool_generates_on_caller() {
+		EphemeralKeyPool pool = EphemeralKeyPool.start(2, countingGenerator(new AtomicInteger()));
+		pool.close();
+
+		assertNotNull(pool.take());
+		assertEquals(0, pool.stats().hitCount());
+		assertEquals(1, pool.stats().missCount());
+	}
+
+	@Test
+	public void no_key_pair_is_handed_out_twice() throws Exception {
+		final int threads = 4;
+		final int takesPerThread = 250;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (EphemeralKeyPool pool = EphemeralKeyPool.start(16, countingGenerator(new AtomicInteger()))) {
+			List<Future<List<ECKeyPair>>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					List<ECKeyPair> taken = new ArrayList<>();
+					for (int j = 0; j < takesPerThread; j++) {
+						taken.add(pool.take());
+					}
+					return taken;
+				}));
+			}
+			Set<ECKeyPair> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+			Set<ECKeyPair> distinct = new HashSet<>();
+			for (Future<List<ECKeyPair>> future : futures) {
+				for (ECKeyPair keyPair : future.get()) {
+					assertTrue(seen.add(keyPair));
+					assertTrue(distinct.add(keyPair));
+				}
+			}
+			EphemeralKeyPool.Stats stats = pool.stats();
+			assertEquals(threads * takesPerThread, stats.hitCount() + stats.missCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void refill_recovers_from_transient_failures() throws InterruptedException {
+		AtomicInteger counter = new AtomicInteger();
+		Supplier<ECKeyPair> generator = countingGenerator(counter);
+		AtomicInteger failures = new AtomicInteger();
+		Supplier<ECKeyPair> flaky = () -> {
+			if (failures.getAndIncrement() < EphemeralKeyPool.MAX_CONSECUTIVE_FAILURES - 1) {
+				throw new IllegalStateException("Transient failure");
+			}
+			return generator.get();
+		};
+		try (EphemeralKeyPool pool = EphemeralKeyPool.start(2, flaky)) {
+			await(() -> pool.stats().refillCount() == 2);
+			assertTrue(pool.isRefilling());
+		}
+	}
+
+	@Test
+	public void refill_stops_after_repeated_failures() throws InterruptedException {
+		AtomicInteger attempts = new AtomicInteger();
+		Supplier<ECKeyPair> failing = () -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("Permanent failure");
+		};
+		try (EphemeralKeyPool pool = EphemeralKeyPool.start(2, failing)) {
+			await(() -> !pool.isRefilling());
+
+			assertEquals(EphemeralKeyPool.MAX_CONSECUTIVE_FAILURES, attempts.get());
+			assertEquals(0, pool.stats().refillCount());
+		}
+	}
+
+	@Test
+	public void capacity_must_be_positive() {
+		assertThatThrownBy(() -> EphemeralKeyPool.start(0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// Cheap, distinct and reproducible key pairs
+	private static Supplier<ECKeyPair> countingGenerator(AtomicInteger counter) {
+		return () -> ECKeyPair.fromSeed(Ints.toByteArray(counter.getAndIncrement()));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out waiting for pool to refill", System.nanoTime() < deadline);
+			Thread.sleep(1);
+		}
+	}
+}
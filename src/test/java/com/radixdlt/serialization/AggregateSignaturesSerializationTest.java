@@ -0,0 +1,57 @@
+package com.radixdlt.serialization;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.AggregateSignatures;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
+import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
+import com.radixdlt.utils.Bytes;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * JSON Serialization round trip of {@link AggregateSignatures}
+ */
+public class AggregateSignaturesSerializationTest extends SerializeObjectEngine<AggregateSignatures> {
+	private final Serialization serialization = Serialization.create(
+		ClasspathScanningSerializerIds.create(),
+		ClasspathScanningSerializationPolicy.create()
+	);
+
+
+	public AggregateSignaturesSerializationTest() {
+		super(AggregateSignatures.class, AggregateSignaturesSerializationTest::getAggregateSignatures);
+	}
+
+	@BeforeClass
+	public static void startRadixTest() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void signer_bitmap_with_trailing_zero_bytes_is_rejected() {
+		JSONObject json = serialization.toJsonObject(getAggregateSignatures(), DsonOutput.Output.ALL);
+		json.put("signers", ":byt:" + Bytes.toBase64String(new byte[] {0x02, 0x00}));
+
+		assertThatThrownBy(() -> serialization.fromJsonObject(json, AggregateSignatures.class))
+			.hasMessageContaining("trailing zero bytes");
+	}
+
+	private static AggregateSignatures getAggregateSignatures() {
+		ECKeyPair k1 = ECKeyPair.generateNew();
+		ECKeyPair k2 = ECKeyPair.generateNew();
+		List<ECPublicKey> validators = ImmutableList.of(k1.getPublicKey(), k2.getPublicKey());
+
+		// Signature validity is not relevant for serialization
+		return AggregateSignatures.create(validators, ImmutableSet.of(k2.getPublicKey()), k2.schnorrSigner().sign(HashUtils.random256()));
+	}
+}
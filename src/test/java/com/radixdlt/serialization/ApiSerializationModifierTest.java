@@ -1,6 +1,8 @@
 package com.radixdlt.serialization;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
 import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
 import org.json.JSONObject;
@@ -26,6 +28,15 @@ public class ApiSerializationModifierTest {
         }
     }
 
+    @MemoizeHash
+    @SerializeWithHid
+    private static final class DummyWithMemoizedHash {
+        @JsonProperty
+        public int getDummy() {
+            return 2;
+        }
+    }
+
     private Serialization serialization;
 
     @Before
@@ -46,6 +57,34 @@ public class ApiSerializationModifierTest {
         assertTrue(obj.has("hid"));
     }
 
+    @Test
+    public void testHashOfMatchesHashOfDson() {
+        DummyWithHid object = new DummyWithHid();
+        HashCode hash = serialization.hashOf(object);
+        assertEquals(HashUtils.sha256(serialization.toDson(object, DsonOutput.Output.HASH)), hash);
+        assertEquals(":hsh:" + hash, serialization.toJsonObject(object, DsonOutput.Output.API).getString("hid"));
+    }
+
+    @Test
+    public void testMemoizedHashIsComputedOnce() {
+        DummyWithMemoizedHash object = new DummyWithMemoizedHash();
+        HashCode hash = serialization.hashOf(object);
+        assertEquals(hash, serialization.hashOf(object));
+        assertEquals(":hsh:" + hash, serialization.toJsonObject(object, DsonOutput.Output.API).getString("hid"));
+        // Computed for the first hash, and remembered for the second and the JSON output
+        assertEquals(1, serialization.hashCacheStats().missCount());
+        assertEquals(2, serialization.hashCacheStats().hitCount());
+        assertEquals(HashUtils.sha256(serialization.toDson(object, DsonOutput.Output.HASH)), hash);
+    }
+
+    @Test
+    public void testHashIsNotMemoizedWithoutAnnotation() {
+        DummyWithHid object = new DummyWithHid();
+        serialization.hashOf(object);
+        serialization.hashOf(object);
+        assertEquals(0, serialization.hashCacheStats().requestCount());
+    }
+
     @Test
     public void testDontIncludeHidFieldInJson() {
         JSONObject output = serialization.toJsonObject(new DummyWithoutHid(), DsonOutput.Output.API);
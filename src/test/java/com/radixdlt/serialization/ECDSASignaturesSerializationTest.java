@@ -1,21 +1,40 @@
 package com.radixdlt.serialization;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.UnsignedBytes;
 import com.radixdlt.TestSetupUtils;
 import com.radixdlt.crypto.ECDSASignature;
 import com.radixdlt.crypto.ECDSASignatures;
 import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
+import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
+import com.radixdlt.utils.Bytes;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 import java.math.BigInteger;
 import java.util.Objects;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 /**
  * JSON Serialization round trip of {@link ECDSASignatures}
  */
 public class ECDSASignaturesSerializationTest extends SerializeObjectEngine<ECDSASignatures> {
 
 
+    private final Serialization serialization = Serialization.create(
+            ClasspathScanningSerializerIds.create(),
+            ClasspathScanningSerializationPolicy.create()
+    );
+
     public ECDSASignaturesSerializationTest() {
         super(ECDSASignatures.class, ECDSASignaturesSerializationTest::getECDSASignatures);
     }
@@ -36,4 +55,79 @@ public class ECDSASignaturesSerializationTest extends SerializeObjectEngine<ECDS
                 )
         );
     }
+
+    @Test
+    public void keys_are_serialized_as_sorted_raw_bytes() {
+        ECDSASignature s1 = new ECDSASignature(BigInteger.ONE, BigInteger.ONE);
+        ECDSASignature s2 = new ECDSASignature(BigInteger.TWO, BigInteger.TWO);
+        ECPublicKey k1 = ECKeyPair.generateNew().getPublicKey();
+        ECPublicKey k2 = ECKeyPair.generateNew().getPublicKey();
+        ECPublicKey first = UnsignedBytes.lexicographicalComparator().compare(k1.getBytes(), k2.getBytes()) < 0 ? k1 : k2;
+
+        JSONObject json = serialization.toJsonObject(
+            new ECDSASignatures(ImmutableMap.of(k1, s1, k2, s2)), DsonOutput.Output.ALL
+        );
+
+        assertEquals(101, json.getInt("version"));
+        assertFalse(json.has("signatures"));
+        JSONArray keys = json.getJSONArray("keys");
+        assertEquals(2, keys.length());
+        assertEquals(":byt:" + Bytes.toBase64String(first.getBytes()), keys.getString(0));
+        assertEquals(2, json.getJSONArray("values").length());
+    }
+
+    @Test
+    public void version_100_layout_is_decoded_and_re_encoded_as_current_version() throws DeserializeException {
+        ECKeyPair k1 = ECKeyPair.generateNew();
+        ECDSASignature s1 = new ECDSASignature(BigInteger.ONE, BigInteger.TEN);
+        ECDSASignatures expected = new ECDSASignatures(k1.getPublicKey(), s1);
+
+        JSONObject legacy = serialization.toJsonObject(expected, DsonOutput.Output.ALL);
+        legacy.remove("keys");
+        legacy.remove("values");
+        legacy.put("version", 100);
+        legacy.put("signatures", new JSONObject().put(
+            Bytes.toHexString(k1.getPublicKey().getBytes()),
+            serialization.toJsonObject(s1, DsonOutput.Output.ALL)
+        ));
+
+        ECDSASignatures decoded = serialization.fromJsonObject(legacy, ECDSASignatures.class);
+        assertEquals(expected, decoded);
+
+        JSONObject reEncoded = serialization.toJsonObject(decoded, DsonOutput.Output.ALL);
+        assertEquals(101, reEncoded.getInt("version"));
+        assertFalse(reEncoded.has("signatures"));
+        assertTrue(reEncoded.has("keys"));
+
+        // Equal instances have the same serialized form, and so the same hash
+        assertArrayEquals(serialization.toDson(expected, DsonOutput.Output.ALL), serialization.toDson(decoded, DsonOutput.Output.ALL));
+        assertEquals(serialization.hashOf(expected), serialization.hashOf(decoded));
+    }
+
+    @Test
+    public void keys_without_values_are_rejected() {
+        JSONObject json = serialization.toJsonObject(getECDSASignatures(), DsonOutput.Output.ALL);
+        json.remove("values");
+
+        assertThatThrownBy(() -> serialization.fromJsonObject(json, ECDSASignatures.class))
+            .hasMessageContaining("only keys are present");
+    }
+
+    @Test
+    public void values_without_keys_are_rejected() {
+        JSONObject json = serialization.toJsonObject(getECDSASignatures(), DsonOutput.Output.ALL);
+        json.remove("keys");
+
+        assertThatThrownBy(() -> serialization.fromJsonObject(json, ECDSASignatures.class))
+            .hasMessageContaining("only signatures are present");
+    }
+
+    @Test
+    public void mismatched_keys_and_values_are_rejected() {
+        JSONObject json = serialization.toJsonObject(getECDSASignatures(), DsonOutput.Output.ALL);
+        json.getJSONArray("values").put(json.getJSONArray("values").get(0));
+
+        assertThatThrownBy(() -> serialization.fromJsonObject(json, ECDSASignatures.class))
+            .hasMessageContaining("do not match");
+    }
 }
@@ -0,0 +1,54 @@
+package com.radixdlt.serialization;
+
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
+import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JSON Serialization round trip of {@link ECDSASignature} including a recovery id
+ */
+public class RecoverableECDSASignatureSerializationTest extends SerializeObjectEngine<ECDSASignature> {
+
+	private final Serialization serialization = Serialization.create(
+		ClasspathScanningSerializerIds.create(),
+		ClasspathScanningSerializationPolicy.create()
+	);
+
+	public RecoverableECDSASignatureSerializationTest() {
+		super(ECDSASignature.class, RecoverableECDSASignatureSerializationTest::getECDSASignature);
+	}
+
+	@BeforeClass
+	public static void startRadixTest() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	private static ECDSASignature getECDSASignature() {
+		Random random = new Random();
+		return new ECDSASignature(BigInteger.valueOf(random.nextLong()), BigInteger.valueOf(random.nextLong()), random.nextInt(4));
+	}
+
+	@Test
+	public void out_of_range_recovery_id_is_rejected() throws DeserializeException {
+		JSONObject json = serialization.toJsonObject(new ECDSASignature(BigInteger.ONE, BigInteger.TEN, 3), DsonOutput.Output.ALL);
+		assertEquals(3, serialization.fromJsonObject(json, ECDSASignature.class).getRecoveryId());
+
+		json.put("v", 4);
+		assertThatThrownBy(() -> serialization.fromJsonObject(json, ECDSASignature.class))
+			.hasMessageContaining("Recovery id must be between 0 and 3: 4");
+
+		json.put("v", -1);
+		assertThatThrownBy(() -> serialization.fromJsonObject(json, ECDSASignature.class))
+			.hasMessageContaining("Recovery id must be between 0 and 3: -1");
+	}
+}
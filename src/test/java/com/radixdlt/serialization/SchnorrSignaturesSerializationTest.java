@@ -0,0 +1,85 @@
+package com.radixdlt.serialization;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.crypto.SchnorrSignatures;
+import com.radixdlt.serialization.core.ClasspathScanningSerializationPolicy;
+import com.radixdlt.serialization.core.ClasspathScanningSerializerIds;
+import com.radixdlt.utils.Bytes;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JSON Serialization round trip of {@link SchnorrSignatures}
+ */
+public class SchnorrSignaturesSerializationTest extends SerializeObjectEngine<SchnorrSignatures> {
+
+	private final Serialization serialization = Serialization.create(
+		ClasspathScanningSerializerIds.create(),
+		ClasspathScanningSerializationPolicy.create()
+	);
+
+	public SchnorrSignaturesSerializationTest() {
+		super(SchnorrSignatures.class, SchnorrSignaturesSerializationTest::getSchnorrSignatures);
+	}
+
+	@BeforeClass
+	public static void startRadixTest() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	private static SchnorrSignatures getSchnorrSignatures() {
+		ECKeyPair k1 = ECKeyPair.generateNew();
+		ECKeyPair k2 = ECKeyPair.generateNew();
+		byte[] hash = HashUtils.random256().asBytes();
+
+		return new SchnorrSignatures(
+			ImmutableMap.of(
+				k1.getPublicKey(), k1.schnorrSigner().sign(hash),
+				k2.getPublicKey(), k2.schnorrSigner().sign(hash)
+			)
+		);
+	}
+
+	@Test
+	public void keys_are_serialized_as_sorted_raw_bytes() {
+		SchnorrSignatures signatures = getSchnorrSignatures();
+		JSONObject json = serialization.toJsonObject(signatures, DsonOutput.Output.ALL);
+
+		assertFalse(json.has("signatures"));
+		JSONArray keys = json.getJSONArray("keys");
+		assertEquals(2, keys.length());
+		assertEquals(2, json.getJSONArray("values").length());
+		byte[] key0 = Bytes.fromBase64String(keys.getString(0).substring(":byt:".length()));
+		byte[] key1 = Bytes.fromBase64String(keys.getString(1).substring(":byt:".length()));
+		assertTrue(UnsignedBytes.lexicographicalComparator().compare(key0, key1) < 0);
+	}
+
+	@Test
+	public void keys_without_values_are_rejected() {
+		JSONObject json = serialization.toJsonObject(getSchnorrSignatures(), DsonOutput.Output.ALL);
+		json.remove("values");
+
+		assertThatThrownBy(() -> serialization.fromJsonObject(json, SchnorrSignatures.class))
+			.hasMessageContaining("only keys are present");
+	}
+
+	@Test
+	public void mismatched_keys_and_values_are_rejected() {
+		JSONObject json = serialization.toJsonObject(getSchnorrSignatures(), DsonOutput.Output.ALL);
+		json.getJSONArray("values").remove(1);
+
+		assertThatThrownBy(() -> serialization.fromJsonObject(json, SchnorrSignatures.class))
+			.hasMessageContaining("do not match");
+	}
+}